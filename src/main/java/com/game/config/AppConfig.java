@@ -1,32 +1,63 @@
 package com.game.config;
 
+import com.game.metrics.PoolMetrics;
+import com.game.metrics.SqlCapture;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.EnableMBeanExport;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jmx.support.RegistrationPolicy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
 
 @Configuration
 @EnableTransactionManagement
-@ComponentScan("com.game")
+@EnableMBeanExport(registration = RegistrationPolicy.REPLACE_EXISTING)
+@ComponentScan(value = "com.game", excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = {Controller.class, Configuration.class})
+})
 @EnableJpaRepositories(basePackages = "com.game.repository")
+@PropertySource(value = "classpath:application.properties", encoding = "UTF-8")
 public class AppConfig {
 
+    private final Environment env;
+
+    public AppConfig(Environment env) {
+        this.env = env;
+    }
+
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
     @Bean
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
@@ -40,15 +71,74 @@ public class AppConfig {
         return em;
     }
 
+    /**
+     * Основная база. Если заданы реплики (db.replica.urls через запятую), чтение в read-only
+     * транзакциях распределяется по ним, а соединение берется только при первом запросе транзакции
+     */
     @Profile("prod")
+    @Primary
     @Bean
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/rpg?serverTimezone=UTC&characterEncoding=UTF-8");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+        return new LazyConnectionDataSourceProxy(routingDataSource());
+    }
+
+    @Profile("prod")
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource() {
+        String poolName = env.getProperty("db.pool.name", "rpg-pool");
+        HikariConfig primaryConfig = poolConfig(poolName, env.getProperty("db.url"));
+        primaryConfig.setMetricsTrackerFactory(poolMetrics());
+
+        List<DataSource> replicas = new ArrayList<>();
+        String[] replicaUrls = env.getProperty("db.replica.urls", String[].class, new String[0]);
+        for (int i = 0; i < replicaUrls.length; i++) {
+            replicas.add(new HikariDataSource(poolConfig(poolName + "-replica-" + i, replicaUrls[i].trim())));
+        }
+        return new ReplicaRoutingDataSource(new HikariDataSource(primaryConfig), replicas,
+                env.getProperty("db.replica.retryMs", Long.class, 5000L),
+                env.getProperty("db.replica.stickyMs", Long.class, 1000L));
+    }
+
+    private HikariConfig poolConfig(String poolName, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(env.getProperty("db.driver"));
+        config.setJdbcUrl(url);
+        config.setUsername(env.getProperty("db.username"));
+        config.setPassword(env.getProperty("db.password"));
+
+        config.setMinimumIdle(env.getProperty("db.pool.minIdle", Integer.class, 5));
+        config.setMaximumPoolSize(env.getProperty("db.pool.maxSize", Integer.class, 20));
+        config.setConnectionTimeout(env.getProperty("db.pool.connectionTimeoutMs", Long.class, 3000L));
+        config.setIdleTimeout(env.getProperty("db.pool.idleTimeoutMs", Long.class, 600000L));
+        config.setMaxLifetime(env.getProperty("db.pool.maxLifetimeMs", Long.class, 1800000L));
+        config.setKeepaliveTime(env.getProperty("db.pool.keepaliveMs", Long.class, 300000L));
+        config.setValidationTimeout(env.getProperty("db.pool.validationTimeoutMs", Long.class, 1000L));
+        config.setLeakDetectionThreshold(env.getProperty("db.pool.leakDetectionThresholdMs", Long.class, 20000L));
+
+        // кэш подготовленных выражений на стороне драйвера MySQL
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", env.getProperty("db.pool.prepStmtCacheSize", "250"));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", env.getProperty("db.pool.prepStmtCacheSqlLimit", "2048"));
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+
+        config.setRegisterMbeans(true);
+        return config;
+    }
+
+    /**
+     * Миграции схемы из db/migration. База, созданная скриптом init.sql,
+     * принимается за версию 1, и к ней применяются только последующие миграции
+     */
+    @Profile("prod")
+    @Bean(initMethod = "migrate")
+    public Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
     }
 
     @Profile("dev")
@@ -64,6 +154,16 @@ public class AppConfig {
                 .build();
     }
 
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public PoolMetrics poolMetrics() {
+        return new PoolMetrics();
+    }
+
     @Bean
     public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
@@ -80,6 +180,7 @@ public class AppConfig {
     private Properties additionalProperties() {
         Properties properties = new Properties();
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        properties.setProperty("hibernate.session_factory.statement_inspector", SqlCapture.class.getName());
 
         return properties;
     }
@@ -0,0 +1,172 @@
+package com.game.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений, который внутри read-only транзакций выдает соединения реплик по кругу,
+ * а во всех остальных случаях - соединения основной базы.
+ * Реплика, не выдавшая соединение, пропускается в течение retryMs; если недоступны все реплики,
+ * чтение идет в основную базу.
+ * <p>
+ * Поток, у которого открыто пишущее соединение, и еще stickyMs после его закрытия читает тоже из основной
+ * базы: реплика может отставать, а писавший должен видеть свои изменения. Другие потоки, в том числе
+ * фоновые писатели, на выбор реплики не влияют; от кэширования отставшего чтения защищает PlayerQueryCache
+ * <p>
+ * Признак read-only известен только после начала транзакции, поэтому источник нужно оборачивать
+ * в LazyConnectionDataSourceProxy: соединение берется при первом запросе, а не при открытии транзакции
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long retryMs;
+    private final long stickyMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ThreadLocal<Writer> writer = ThreadLocal.withInitial(Writer::new);
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long retryMs, long stickyMs) {
+        this.primary = primary;
+        for (DataSource replica : replicas) {
+            this.replicas.add(new Replica(replica));
+        }
+        this.retryMs = retryMs;
+        this.stickyMs = stickyMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (replicas.isEmpty()) {
+            return connect(primary, username, password);
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!recentlyWritten()) {
+                Connection connection = getReplicaConnection(username, password);
+                if (connection != null) {
+                    return connection;
+                }
+            }
+            return connect(primary, username, password);
+        }
+        return trackWrite(connect(primary, username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(primary);
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+    }
+
+    private boolean recentlyWritten() {
+        Writer current = writer.get();
+        return current.open.get() > 0 || System.currentTimeMillis() - current.lastClosed < stickyMs;
+    }
+
+    /**
+     * Соединение вне read-only транзакции считается пишущим до закрытия: закрывается оно уже после коммита.
+     * Соединение без единого запроса (например, проверка настроек по умолчанию в LazyConnectionDataSourceProxy)
+     * окно чтения из основной базы не продлевает
+     */
+    private Connection trackWrite(Connection connection) {
+        // соединение могут закрыть из другого потока, поэтому запоминается состояние взявшего его потока
+        Writer owner = writer.get();
+        owner.open.incrementAndGet();
+        AtomicBoolean used = new AtomicBoolean();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("close")) {
+                        if (closed.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                if (used.get()) {
+                                    owner.lastClosed = System.currentTimeMillis();
+                                }
+                                owner.open.decrementAndGet();
+                            }
+                        }
+                        return null;
+                    }
+                    if (name.equals("createStatement") || name.startsWith("prepare")) {
+                        used.set(true);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private Connection getReplicaConnection(String username, String password) {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            long now = System.currentTimeMillis();
+            if (!replica.isAvailable(now)) {
+                continue;
+            }
+            try {
+                Connection connection = connect(replica.dataSource, username, password);
+                replica.unavailableUntil = 0;
+                return connection;
+            } catch (SQLException e) {
+                logger.warn("Реплика недоступна, повтор через " + retryMs + " мс: " + e.getMessage());
+                replica.unavailableUntil = now + retryMs;
+            }
+        }
+        return null;
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+
+    /**
+     * Пишущие соединения одного потока
+     */
+    private static class Writer {
+        final AtomicInteger open = new AtomicInteger();
+        volatile long lastClosed = Long.MIN_VALUE / 2;
+    }
+
+    private static class Replica {
+        final DataSource dataSource;
+        volatile long unavailableUntil;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        boolean isAvailable(long now) {
+            return unavailableUntil <= now;
+        }
+    }
+}
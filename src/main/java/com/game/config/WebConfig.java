@@ -2,15 +2,26 @@ package com.game.config;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.game.converter.PlayerRequestToPlayerConverter;
+import com.game.metrics.ExceptionMetricsResolver;
+import com.game.metrics.MetricsInterceptor;
+import com.game.metrics.RequestMetrics;
+import com.game.metrics.TimedConverter;
+import com.game.model.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -21,9 +32,46 @@ import java.util.List;
 
 @Configuration
 @EnableWebMvc
-@ComponentScan("com.game")
+@ComponentScan("com.game.controller")
 public class WebConfig implements WebMvcConfigurer {
 
+    private final RequestMetrics requestMetrics;
+    private final int exportThreads;
+    private final int exportQueue;
+    private final long exportTimeoutMs;
+
+    public WebConfig(RequestMetrics requestMetrics,
+                     @Value("${export.threads:4}") int exportThreads,
+                     @Value("${export.queue:20}") int exportQueue,
+                     @Value("${export.timeoutMs:600000}") long exportTimeoutMs) {
+        this.requestMetrics = requestMetrics;
+        this.exportThreads = exportThreads;
+        this.exportQueue = exportQueue;
+        this.exportTimeoutMs = exportTimeoutMs;
+    }
+
+    /**
+     * Потоки для StreamingResponseBody (выгрузка NDJSON). Без него Spring создает новый поток на каждый запрос.
+     * Если все потоки заняты и очередь заполнена, выгрузка отклоняется с 503
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("export-");
+        executor.setCorePoolSize(exportThreads);
+        executor.setMaxPoolSize(exportThreads);
+        executor.setQueueCapacity(exportQueue);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            throw new ServiceUnavailableException("Очередь выгрузок заполнена");
+        });
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor());
+        configurer.setDefaultTimeout(exportTimeoutMs);
+    }
 
     @Bean
     public ViewResolver internalResourceViewResolver() {
@@ -44,12 +92,27 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/resources/**").addResourceLocations("/resources/");
     }
 
+    @Bean
+    public ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new MappingJackson2HttpMessageConverter().getObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return objectMapper;
+    }
+
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.getObjectMapper().setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
-        converter.getObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
-        converters.add(converter);
+        converters.add(new TimedConverter(objectMapper(), requestMetrics));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new MetricsInterceptor(requestMetrics));
+    }
+
+    @Override
+    public void extendHandlerExceptionResolvers(List<HandlerExceptionResolver> resolvers) {
+        resolvers.add(0, new ExceptionMetricsResolver(requestMetrics));
     }
 
     @Override
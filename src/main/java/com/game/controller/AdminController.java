@@ -0,0 +1,151 @@
+package com.game.controller;
+
+import com.game.metrics.PoolMetrics;
+import com.game.metrics.RequestMetrics;
+import com.game.metrics.SlowQueryLog;
+import com.game.service.ExperienceIngestor;
+import com.game.service.LevelRecomputeJob;
+import com.game.service.async.PlayerExecutors;
+import com.game.service.bitmap.PlayerBitmapIndex;
+import com.game.service.columnar.PlayerColumnStore;
+import com.game.service.counters.PlayerCounters;
+import com.game.service.cache.PlayerCache;
+import com.game.service.cache.PlayerQueryCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Служебные эндпоинты для мониторинга приложения
+ */
+@RestController
+@RequestMapping("/rest/admin")
+public class AdminController {
+
+    private PoolMetrics poolMetrics;
+    private PlayerCache playerCache;
+    private PlayerQueryCache queryCache;
+    private LevelRecomputeJob levelRecomputeJob;
+    private PlayerExecutors playerExecutors;
+    private RequestMetrics requestMetrics;
+    private SlowQueryLog slowQueryLog;
+    private PlayerColumnStore columnStore;
+    private PlayerBitmapIndex bitmapIndex;
+    private PlayerCounters counters;
+    private ExperienceIngestor experienceIngestor;
+
+    @Autowired
+    public AdminController(PoolMetrics poolMetrics, PlayerCache playerCache, PlayerQueryCache queryCache,
+                           LevelRecomputeJob levelRecomputeJob, PlayerExecutors playerExecutors,
+                           RequestMetrics requestMetrics, SlowQueryLog slowQueryLog, PlayerColumnStore columnStore,
+                           PlayerBitmapIndex bitmapIndex, PlayerCounters counters,
+                           ExperienceIngestor experienceIngestor) {
+        this.poolMetrics = poolMetrics;
+        this.playerCache = playerCache;
+        this.queryCache = queryCache;
+        this.levelRecomputeJob = levelRecomputeJob;
+        this.playerExecutors = playerExecutors;
+        this.requestMetrics = requestMetrics;
+        this.slowQueryLog = slowQueryLog;
+        this.columnStore = columnStore;
+        this.bitmapIndex = bitmapIndex;
+        this.counters = counters;
+        this.experienceIngestor = experienceIngestor;
+    }
+
+    /**
+     * Таймеры маршрутов, методов сервиса, запросов к базе и сериализации, счетчики исключений
+     */
+    @GetMapping("/metrics")
+    public Map<String, Object> getRequestMetrics() {
+        return requestMetrics.getSnapshot();
+    }
+
+    @GetMapping("/pool")
+    public Map<String, Object> getPoolMetrics() {
+        return poolMetrics.snapshot();
+    }
+
+    @GetMapping("/cache")
+    public Map<String, Object> getCacheStats() {
+        return playerCache.stats();
+    }
+
+    @GetMapping("/query-cache")
+    public Map<String, Object> getQueryCacheStats() {
+        return queryCache.stats();
+    }
+
+    @GetMapping("/columnar")
+    public Map<String, Object> getColumnarStats() {
+        return columnStore.stats();
+    }
+
+    @GetMapping("/bitmap")
+    public Map<String, Object> getBitmapStats() {
+        return bitmapIndex.stats();
+    }
+
+    @GetMapping("/counters")
+    public Map<String, Object> getCountersStats() {
+        return counters.stats();
+    }
+
+    /**
+     * Очередь начислений опыта: принято, склеено, отклонено, записано, ошибки записи
+     */
+    @GetMapping("/experience")
+    public Map<String, Object> getExperienceStats() {
+        return experienceIngestor.stats();
+    }
+
+    /**
+     * Последние медленные выборки: фильтр, SQL, количество строк и время, начиная с последней
+     */
+    @GetMapping("/slow-queries")
+    public List<Map<String, Object>> getSlowQueries() {
+        return slowQueryLog.getEntries();
+    }
+
+    /**
+     * Изменение порога журнала медленных выборок без перезапуска
+     */
+    @PostMapping("/slow-queries/threshold")
+    public long setSlowQueryThreshold(@RequestParam("ms") long thresholdMs) {
+        slowQueryLog.setThresholdMs(thresholdMs);
+        return slowQueryLog.getThresholdMs();
+    }
+
+    @DeleteMapping("/slow-queries")
+    public void clearSlowQueries() {
+        slowQueryLog.clear();
+    }
+
+    @GetMapping("/executors")
+    public Map<String, Object> getExecutorStats() {
+        return playerExecutors.stats();
+    }
+
+    /**
+     * Запуск пересчета уровней по всей таблице. 409, если пересчет уже идет
+     */
+    @PostMapping("/levels/recompute")
+    public ResponseEntity<Map<String, Object>> startLevelRecompute() {
+        HttpStatus status = levelRecomputeJob.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(levelRecomputeJob.progress());
+    }
+
+    @GetMapping("/levels/recompute")
+    public Map<String, Object> getLevelRecomputeProgress() {
+        return levelRecomputeJob.progress();
+    }
+}
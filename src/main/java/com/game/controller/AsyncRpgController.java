@@ -0,0 +1,119 @@
+package com.game.controller;
+
+import com.game.entity.Player;
+import com.game.model.PlayerPage;
+import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
+import com.game.model.exception.ServiceUnavailableException;
+import com.game.service.PlayerService;
+import com.game.service.async.OperationExecutor;
+import com.game.service.async.PlayerExecutors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Асинхронные варианты эндпоинтов RpgController. Поток контейнера освобождается сразу,
+ * операция выполняется на исполнителе своего класса (поиск по id, выборки, изменения)
+ * и завершается 503, если очередь исполнителя заполнена или истек таймаут.
+ * Для изменений таймаут ограничивает только ожидание в очереди: по 503 изменение точно не выполнено
+ * и его можно повторить, а начатое изменение всегда возвращает свой результат
+ */
+@RestController
+@RequestMapping("/rest/async")
+public class AsyncRpgController {
+
+    private PlayerService playerService;
+    private PlayerExecutors executors;
+
+    @Autowired
+    public AsyncRpgController(PlayerService playerService, PlayerExecutors executors) {
+        this.playerService = playerService;
+        this.executors = executors;
+    }
+
+    /**
+     * Список игроков; с параметром cursor - выборка по ключу, как в RpgController.getPlayers
+     */
+    @GetMapping("/players")
+    public DeferredResult<ResponseEntity<List<PlayerView>>> getPlayers(@ModelAttribute PlayerRequest playerRequest) {
+        if (playerRequest.getCursor() == null) {
+            return defer(executors.listing(), () -> ResponseEntity.ok(playerService.getAllPlayers(playerRequest)));
+        }
+        return defer(executors.listing(),
+                () -> RpgController.cursorResponse(playerService.getPlayersAfterCursor(playerRequest)));
+    }
+
+    @GetMapping("/players/page")
+    public DeferredResult<PlayerPage> getPlayersPage(@ModelAttribute PlayerRequest playerRequest) {
+        return defer(executors.listing(), () -> playerService.getPage(playerRequest));
+    }
+
+    @GetMapping("/players/count")
+    public DeferredResult<Long> getPlayersCount(@ModelAttribute PlayerRequest playerRequest) {
+        return defer(executors.listing(), () -> playerService.count(playerRequest));
+    }
+
+    @GetMapping("/players/{id}")
+    public DeferredResult<PlayerView> getPlayerById(@PathVariable("id") long id) {
+        return defer(executors.lookup(), () -> playerService.getPlayerById(id));
+    }
+
+    @PostMapping("/players")
+    public DeferredResult<Player> createPlayer(@RequestBody PlayerRequest playerRequest) {
+        return deferWrite(() -> playerService.createPlayer(playerRequest));
+    }
+
+    @PostMapping("/players/{id}")
+    public DeferredResult<Player> updatePlayer(@PathVariable("id") long id, @RequestBody PlayerRequest playerRequest) {
+        return deferWrite(() -> playerService.updatePlayer(id, playerRequest));
+    }
+
+    @DeleteMapping("/players/{id}")
+    public DeferredResult<ResponseEntity<Void>> deletePlayer(@PathVariable("id") long id) {
+        return deferWrite(() -> {
+            playerService.deletePlayer(id);
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    /**
+     * Метод ставит операцию в очередь исполнителя и связывает ее результат с ответом.
+     * По таймауту операция отменяется: если она еще ждала в очереди, то не выполнится
+     */
+    private <T> DeferredResult<T> defer(OperationExecutor executor, Supplier<T> action) {
+        DeferredResult<T> result = new DeferredResult<>(executor.getTimeoutMs());
+        CompletableFuture<T> future = executor.submit(action);
+        result.onTimeout(() -> {
+            future.cancel(false);
+            result.setErrorResult(new ServiceUnavailableException("Истек таймаут запроса"));
+        });
+        return complete(result, future);
+    }
+
+    /**
+     * Метод ставит изменение в очередь исполнителя изменений. Ответ без таймаута (0 - без ограничения):
+     * если изменение не началось за таймаут исполнителя, оно отменяется и ответ 503,
+     * иначе ответ ждет фактического результата
+     */
+    private <T> DeferredResult<T> deferWrite(Supplier<T> action) {
+        return complete(new DeferredResult<>(0L), executors.write().submitBeforeTimeout(action));
+    }
+
+    private static <T> DeferredResult<T> complete(DeferredResult<T> result, CompletableFuture<T> future) {
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.setResult(value);
+            } else {
+                result.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package com.game.controller;
+
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.LeaderboardEntry;
+import com.game.service.leaderboard.Leaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Рейтинг игроков по опыту: первые места, место игрока и его соседи по рейтингу
+ */
+@RestController
+@RequestMapping("/rest/leaderboard")
+public class LeaderboardController {
+
+    private Leaderboard leaderboard;
+
+    @Autowired
+    public LeaderboardController(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Первые limit мест общего рейтинга или рейтинга расы (race) либо профессии (profession)
+     */
+    @GetMapping("/top")
+    public List<LeaderboardEntry> getTop(@RequestParam(value = "race", required = false) Race race,
+                                         @RequestParam(value = "profession", required = false) Profession profession,
+                                         @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return leaderboard.top(race, profession, limit);
+    }
+
+    /**
+     * Место игрока в общем рейтинге или среди игроков его расы либо профессии
+     */
+    @GetMapping("/players/{id}")
+    public LeaderboardEntry getRank(@PathVariable("id") long id,
+                                    @RequestParam(value = "scope", defaultValue = "GLOBAL") LeaderboardScope scope) {
+        return leaderboard.rank(id, scope);
+    }
+
+    /**
+     * Игрок и по count соседей выше и ниже него в рейтинге
+     */
+    @GetMapping("/players/{id}/around")
+    public List<LeaderboardEntry> getAround(@PathVariable("id") long id,
+                                            @RequestParam(value = "scope", defaultValue = "GLOBAL") LeaderboardScope scope,
+                                            @RequestParam(value = "count", defaultValue = "5") int count) {
+        return leaderboard.around(id, scope, count);
+    }
+}
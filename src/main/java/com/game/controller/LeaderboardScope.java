@@ -0,0 +1,10 @@
+package com.game.controller;
+
+/**
+ * Таблица рейтинга, в которой считается место игрока: общая или среди игроков его расы или профессии
+ */
+public enum LeaderboardScope {
+    GLOBAL, // default
+    RACE,
+    PROFESSION
+}
@@ -1,27 +1,75 @@
 package com.game.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.game.entity.Player;
+import com.game.model.ExperienceEvent;
+import com.game.model.PlayerBatchResult;
+import com.game.model.PlayerPage;
 import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
+import com.game.service.ExperienceIngestor;
 import com.game.service.PlayerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/rest")
 public class RpgController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON = "application/x-ndjson";
+
     private PlayerService playerService;
+    private ExperienceIngestor experienceIngestor;
+    private ObjectWriter playerWriter;
 
     @Autowired
-    public RpgController(PlayerService playerService) {
+    public RpgController(PlayerService playerService, ExperienceIngestor experienceIngestor, ObjectMapper objectMapper) {
         this.playerService = playerService;
+        this.experienceIngestor = experienceIngestor;
+        this.playerWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    /**
+     * Список игроков. Если передан параметр cursor (пустой - для первой страницы),
+     * выборка идет по ключу, а курсор следующей страницы возвращается в заголовке X-Next-Cursor
+     */
     @GetMapping("/players")
-    public List<Player> getPlayers(@ModelAttribute PlayerRequest playerRequest) {
-        return playerService.getAllPlayers(playerRequest);
+    public ResponseEntity<List<PlayerView>> getPlayers(@ModelAttribute PlayerRequest playerRequest) {
+        if (playerRequest.getCursor() == null) {
+            return ResponseEntity.ok(playerService.getAllPlayers(playerRequest));
+        }
+        return cursorResponse(playerService.getPlayersAfterCursor(playerRequest));
+    }
+
+    /**
+     * @return игроки страницы и курсор следующей страницы в заголовке X-Next-Cursor, если она есть
+     */
+    static ResponseEntity<List<PlayerView>> cursorResponse(PlayerPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getPlayers());
+    }
+
+    /**
+     * Страница игроков и общее количество по фильтру одним запросом.
+     * С параметром withCount=false подсчет пропускается, остается только признак hasNext
+     */
+    @GetMapping("/players/page")
+    public PlayerPage getPlayersPage(@ModelAttribute PlayerRequest playerRequest) {
+        return playerService.getPage(playerRequest);
     }
 
     @GetMapping("/players/count")
@@ -29,13 +77,54 @@ public class RpgController {
         return playerService.count(playerRequest);
     }
 
+    /**
+     * Выгрузка всех игроков по фильтру в формате NDJSON (один игрок в строке).
+     * Строки читаются из базы курсором и сразу пишутся в ответ
+     */
+    @GetMapping(value = "/players/export", produces = NDJSON)
+    public StreamingResponseBody exportPlayers(@ModelAttribute PlayerRequest playerRequest) {
+        return outputStream -> {
+            try (JsonGenerator generator = playerWriter.getFactory().createGenerator(outputStream)) {
+                playerService.exportPlayers(playerRequest, player -> {
+                    try {
+                        playerWriter.writeValue(generator, player);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
     @PostMapping("/players")
     public Player getNewPlayer(@RequestBody PlayerRequest playerRequest) {
         return playerService.createPlayer(playerRequest);
     }
 
+    /**
+     * Создание нескольких игроков (не больше batch.maxSize, иначе 400). Операция не атомарна:
+     * игроки пишутся частями в отдельных транзакциях, и при ошибке записи уже созданные части остаются
+     */
+    @PostMapping("/players/batch")
+    public PlayerBatchResult createPlayers(@RequestBody List<PlayerRequest> playerRequests) {
+        return playerService.createPlayers(playerRequests);
+    }
+
+    /**
+     * Прием начислений опыта [{"id": 1, "delta": 10}, ...]. Изменения записываются пакетами в фоне,
+     * поэтому ответ 202 означает, что события сохранены в experience_event, но еще не записаны в player.
+     * 503 - очередь переполнена
+     *
+     * @return количество принятых событий
+     */
+    @PostMapping("/players/experience")
+    public ResponseEntity<Integer> awardExperience(@RequestBody List<ExperienceEvent> events) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(experienceIngestor.submit(events));
+    }
+
     @GetMapping("/players/{id}")
-    public Player getPlayerById(@PathVariable("id") long id) {
+    public PlayerView getPlayerById(@PathVariable("id") long id) {
         return playerService.getPlayerById(id);
     }
 
@@ -48,4 +137,29 @@ public class RpgController {
     public void deletePlayer(@PathVariable("id") long id) {
         playerService.deletePlayer(id);
     }
+
+    /**
+     * Массовое удаление по фильтрам (те же параметры, что у GET /players)
+     *
+     * @return количество удаленных игроков
+     */
+    @DeleteMapping("/players")
+    public int deletePlayers(@ModelAttribute PlayerRequest playerRequest) {
+        return playerService.deletePlayers(playerRequest);
+    }
+
+    /**
+     * Массовый бан по фильтрам (те же параметры, что у GET /players)
+     *
+     * @return количество забаненных игроков
+     */
+    @PostMapping("/players/ban")
+    public int banPlayers(@ModelAttribute PlayerRequest playerRequest) {
+        return playerService.setBanned(playerRequest, true);
+    }
+
+    @PostMapping("/players/unban")
+    public int unbanPlayers(@ModelAttribute PlayerRequest playerRequest) {
+        return playerService.setBanned(playerRequest, false);
+    }
 }
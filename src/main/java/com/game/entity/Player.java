@@ -1,5 +1,7 @@
 package com.game.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import java.util.Date;
 
@@ -23,6 +25,12 @@ public class Player {
     private Integer level;
     private Integer untilNextLevel;
 
+    /**
+     * Растет при каждом изменении строки, по ней структуры в памяти отбрасывают опоздавшие события
+     */
+    @JsonIgnore
+    private long version;
+
     public Long getId() {
         return id;
     }
@@ -102,4 +110,12 @@ public class Player {
     public void setUntilNextLevel(Integer untilNextLevel) {
         this.untilNextLevel = untilNextLevel;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
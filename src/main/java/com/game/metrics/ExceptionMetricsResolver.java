@@ -0,0 +1,30 @@
+package com.game.metrics;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Считает исключения из обработчиков по типам и передает их дальше стандартным обработчикам
+ */
+public class ExceptionMetricsResolver implements HandlerExceptionResolver, Ordered {
+    private final RequestMetrics metrics;
+
+    public ExceptionMetricsResolver(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        metrics.recordException(ex);
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
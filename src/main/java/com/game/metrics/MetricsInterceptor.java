@@ -0,0 +1,42 @@
+package com.game.metrics;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Перехватчик, который записывает длительность и статус каждого запроса в таймер маршрута
+ * ("GET /rest/players/{id}"). Для асинхронных запросов время считается от первого входа
+ * до завершения повторной обработки
+ */
+public class MetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final String START = MetricsInterceptor.class.getName() + ".start";
+
+    private final RequestMetrics metrics;
+
+    public MetricsInterceptor(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START) == null) {
+            request.setAttribute(START, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START);
+        if (start == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+        boolean error = ex != null || response.getStatus() >= 400;
+        metrics.timer(RequestMetrics.ROUTES, route).record(System.nanoTime() - (Long) start, error);
+    }
+}
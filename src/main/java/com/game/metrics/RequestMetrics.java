@@ -0,0 +1,60 @@
+package com.game.metrics;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики запросов: таймеры по группам (маршруты REST, методы сервиса, запросы к базе, сериализация)
+ * и счетчики исключений по типам. Доступны через /rest/admin/metrics и JMX
+ */
+@Component
+@ManagedResource(objectName = "com.game:type=RequestMetrics")
+public class RequestMetrics {
+    public static final String ROUTES = "routes";
+    public static final String SERVICE = "service";
+    public static final String DB = "db";
+    public static final String SERIALIZATION = "serialization";
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> exceptions = new ConcurrentHashMap<>();
+
+    public Timer timer(String group, String name) {
+        return timers.computeIfAbsent(group, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, key -> new Timer());
+    }
+
+    public void recordException(Throwable exception) {
+        exceptions.computeIfAbsent(exception.getClass().getSimpleName(), key -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return группа - (имя таймера - срез), а также exceptions: тип исключения - количество
+     */
+    @ManagedAttribute(description = "Таймеры по группам и счетчики исключений")
+    public Map<String, Object> getSnapshot() {
+        Map<String, Object> result = new TreeMap<>();
+        timers.forEach((group, groupTimers) -> {
+            Map<String, Object> snapshots = new TreeMap<>();
+            groupTimers.forEach((name, timer) -> snapshots.put(name, timer.snapshot()));
+            result.put(group, snapshots);
+        });
+        Map<String, Object> exceptionCounts = new TreeMap<>();
+        exceptions.forEach((type, count) -> exceptionCounts.put(type, count.sum()));
+        result.put("exceptions", exceptionCounts);
+        return result;
+    }
+
+    @ManagedOperation(description = "Сброс всех метрик")
+    public void reset() {
+        timers.clear();
+        exceptions.clear();
+    }
+}
@@ -0,0 +1,160 @@
+package com.game.metrics;
+
+import com.game.model.PlayerRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Журнал медленных выборок: запросы дольше порога сохраняются вместе с полями фильтра PlayerRequest,
+ * SQL, сформированным Hibernate, количеством строк и временем. Хранятся последние capacity записей.
+ * Значения параметров SQL - поля фильтра и id-кандидаты из индекса триграмм; в запросах остаются знаки ?,
+ * а от кандидатов записывается только их количество (candidateIds). Выборка, завершившаяся исключением,
+ * записывается с классом исключения в error
+ */
+@Component
+public class SlowQueryLog {
+    private static final ThreadLocal<Map<String, Object>> CANDIDATES = new ThreadLocal<>();
+
+    private final Map<String, Object>[] entries;
+    private int next;
+    private long total;
+    private volatile long thresholdNanos;
+
+    @SuppressWarnings("unchecked")
+    public SlowQueryLog(@Value("${slowQuery.thresholdMs:200}") long thresholdMs,
+                        @Value("${slowQuery.capacity:100}") int capacity) {
+        this.entries = new Map[capacity];
+        setThresholdMs(thresholdMs);
+    }
+
+    public void setThresholdMs(long thresholdMs) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    public long getThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Метод выполняет выборку и, если она дольше порога, записывает ее в журнал
+     *
+     * @param operation название выборки
+     * @param request   фильтр, по которому построен запрос
+     * @param query     выполнение выборки
+     * @param rows      количество строк в результате (для подсчета - найденное количество)
+     */
+    public <T> T track(String operation, PlayerRequest request, Supplier<T> query, ToLongFunction<T> rows) {
+        if (!SqlCapture.begin()) {
+            return query.get();
+        }
+        CANDIDATES.set(new LinkedHashMap<>());
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = query.get();
+        } catch (RuntimeException | Error e) {
+            // самые долгие выборки (ожидание блокировки, таймаут запроса) завершаются исключением
+            record(operation, request, start, null, e);
+            throw e;
+        }
+        record(operation, request, start, rows.applyAsLong(result), null);
+        return result;
+    }
+
+    /**
+     * Метод запоминает, сколько id-кандидатов из индекса попало в условие выполняемой выборки
+     *
+     * @param field поле, по которому искали кандидатов
+     */
+    public void candidates(String field, int count) {
+        Map<String, Object> candidates = CANDIDATES.get();
+        if (candidates != null) {
+            candidates.put(field, count);
+        }
+    }
+
+    /**
+     * @return записи журнала, начиная с последней
+     */
+    public synchronized List<Map<String, Object>> getEntries() {
+        int size = (int) Math.min(total, entries.length);
+        List<Map<String, Object>> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            result.add(entries[(next - i + entries.length) % entries.length]);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+        total = 0;
+    }
+
+    private synchronized void add(Map<String, Object> entry) {
+        if (entries.length == 0) {
+            return;
+        }
+        entries[next] = Collections.unmodifiableMap(entry);
+        next = (next + 1) % entries.length;
+        total++;
+    }
+
+    private void record(String operation, PlayerRequest request, long start, Long rows, Throwable error) {
+        List<String> statements = SqlCapture.end();
+        Map<String, Object> candidates = CANDIDATES.get();
+        CANDIDATES.remove();
+        long nanos = System.nanoTime() - start;
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", System.currentTimeMillis());
+        entry.put("operation", operation);
+        entry.put("durationMs", nanos / 1e6);
+        putIfPresent(entry, "rows", rows);
+        putIfPresent(entry, "error", error == null ? null : error.getClass().getName());
+        entry.put("filters", filters(request));
+        if (!candidates.isEmpty()) {
+            entry.put("candidateIds", candidates);
+        }
+        entry.put("sql", statements);
+        add(entry);
+    }
+
+    private static Map<String, Object> filters(PlayerRequest request) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        putIfPresent(result, "name", request.getName());
+        putIfPresent(result, "title", request.getTitle());
+        putIfPresent(result, "race", request.getRace());
+        putIfPresent(result, "profession", request.getProfession());
+        putIfPresent(result, "after", request.getAfter());
+        putIfPresent(result, "before", request.getBefore());
+        putIfPresent(result, "banned", request.getBanned());
+        putIfPresent(result, "minExperience", request.getMinExperience());
+        putIfPresent(result, "maxExperience", request.getMaxExperience());
+        putIfPresent(result, "minLevel", request.getMinLevel());
+        putIfPresent(result, "maxLevel", request.getMaxLevel());
+        putIfPresent(result, "order", request.getOrder());
+        putIfPresent(result, "cursor", request.getCursor());
+        result.put("pageNumber", request.getPageNumber());
+        result.put("pageSize", request.getPageSize());
+        return result;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.game.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Перехватчик SQL Hibernate: пока для потока включен захват, запоминает все сформированные запросы.
+ * Регистрируется в AppConfig свойством hibernate.session_factory.statement_inspector
+ */
+public class SqlCapture implements StatementInspector {
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    /**
+     * Метод включает захват для текущего потока
+     *
+     * @return false, если захват уже включен (вложенный вызов)
+     */
+    static boolean begin() {
+        if (CAPTURED.get() != null) {
+            return false;
+        }
+        CAPTURED.set(new ArrayList<>());
+        return true;
+    }
+
+    /**
+     * Метод выключает захват для текущего потока
+     *
+     * @return запросы, сформированные после begin()
+     */
+    static List<String> end() {
+        List<String> statements = CAPTURED.get();
+        CAPTURED.remove();
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = CAPTURED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,35 @@
+package com.game.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON-конвертер, который записывает время сериализации ответа в таймер по типу тела
+ */
+public class TimedConverter extends MappingJackson2HttpMessageConverter {
+    private final RequestMetrics metrics;
+
+    public TimedConverter(ObjectMapper objectMapper, RequestMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            super.writeInternal(object, type, outputMessage);
+            error = false;
+        } finally {
+            String name = object == null ? "null" : object.getClass().getSimpleName();
+            metrics.timer(RequestMetrics.SERIALIZATION, name).record(System.nanoTime() - start, error);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.game.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Количество вызовов, ошибок и гистограмма длительностей (в микросекундах, 3 значащие цифры).
+ * Значения больше минуты записываются как минута
+ */
+public class Timer {
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram histogram = new ConcurrentHistogram(MAX_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long nanos, boolean error) {
+        histogram.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), MAX_MICROS));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * @return количество, ошибки и перцентили длительности в микросекундах
+     */
+    public Map<String, Object> snapshot() {
+        Histogram copy = histogram.copy();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", copy.getTotalCount());
+        result.put("errors", errors.sum());
+        result.put("meanUs", Math.round(copy.getMean()));
+        result.put("p50Us", copy.getValueAtPercentile(50));
+        result.put("p99Us", copy.getValueAtPercentile(99));
+        result.put("p999Us", copy.getValueAtPercentile(99.9));
+        result.put("maxUs", copy.getMaxValue());
+        return result;
+    }
+}
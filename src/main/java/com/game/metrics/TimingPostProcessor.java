@@ -0,0 +1,63 @@
+package com.game.metrics;
+
+import com.game.repository.PlayerJdbcRepository;
+import com.game.service.PlayerService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Оборачивает PlayerService и репозитории игроков в прокси, который записывает время каждого метода:
+ * методы сервиса - в группу service, методы репозиториев - в группу db.
+ * Имя замера - класс и метод (PlayerRepository.count), чтобы одноименные методы разных классов не смешивались
+ */
+@Component
+public class TimingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    @Autowired
+    public TimingPostProcessor(RequestMetrics metrics) {
+        this.beforeExistingAdvisors = true;
+        // репозиторий Spring Data - прокси над SimpleJpaRepository, поэтому отбор по классу цели
+        ClassFilter classFilter = clazz -> PlayerService.class.isAssignableFrom(clazz)
+                || PlayerJdbcRepository.class.isAssignableFrom(clazz)
+                || SimpleJpaRepository.class.isAssignableFrom(clazz);
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(classFilter), (MethodInterceptor) invocation -> {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            String group = invocation.getThis() instanceof PlayerService ? RequestMetrics.SERVICE : RequestMetrics.DB;
+            long start = System.nanoTime();
+            boolean error = true;
+            try {
+                Object result = invocation.proceed();
+                error = false;
+                return result;
+            } finally {
+                metrics.timer(group, name(invocation)).record(System.nanoTime() - start, error);
+            }
+        });
+    }
+
+    /**
+     * @return интерфейс JDK-прокси (у Spring Data цель - общий SimpleJpaRepository) или класс цели и имя метода
+     */
+    private static String name(MethodInvocation invocation) {
+        Object proxy = invocation instanceof ProxyMethodInvocation
+                ? ((ProxyMethodInvocation) invocation).getProxy() : invocation.getThis();
+        Class<?> type = Proxy.isProxyClass(proxy.getClass())
+                ? AopProxyUtils.proxiedUserInterfaces(proxy)[0]
+                : ClassUtils.getUserClass(invocation.getThis());
+        return type.getSimpleName() + "." + invocation.getMethod().getName();
+    }
+}
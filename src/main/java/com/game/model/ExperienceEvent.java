@@ -0,0 +1,33 @@
+package com.game.model;
+
+/**
+ * Начисление (или списание при отрицательном delta) опыта игроку
+ */
+public class ExperienceEvent {
+    private Long id;
+    private Long delta;
+
+    public ExperienceEvent() {
+    }
+
+    public ExperienceEvent(Long id, Long delta) {
+        this.id = id;
+        this.delta = delta;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Long delta) {
+        this.delta = delta;
+    }
+}
@@ -0,0 +1,22 @@
+package com.game.model;
+
+/**
+ * Игрок и его место в таблице рейтинга (с единицы)
+ */
+public class LeaderboardEntry {
+    private final long rank;
+    private final PlayerView player;
+
+    public LeaderboardEntry(long rank, PlayerView player) {
+        this.rank = rank;
+        this.player = player;
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    public PlayerView getPlayer() {
+        return player;
+    }
+}
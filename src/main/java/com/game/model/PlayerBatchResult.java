@@ -0,0 +1,52 @@
+package com.game.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат пакетного создания игроков: id созданных и ошибки по отдельным элементам
+ */
+public class PlayerBatchResult {
+    private final List<Long> ids = new ArrayList<>();
+    private final List<ItemError> errors = new ArrayList<>();
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public List<ItemError> getErrors() {
+        return errors;
+    }
+
+    public void addId(long id) {
+        ids.add(id);
+    }
+
+    public void addError(int index, String message) {
+        errors.add(new ItemError(index, message));
+    }
+
+    /**
+     * Ошибка валидации элемента пакета
+     */
+    public static class ItemError {
+        private final int index;
+        private final String message;
+
+        public ItemError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        /**
+         * @return позиция элемента в исходном пакете
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.game.model;
+
+import com.game.controller.PlayerOrder;
+import com.game.model.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Курсор для постраничной выборки по ключу (keyset pagination).
+ * Хранит значение поля сортировки и id последнего игрока на странице
+ */
+public class PlayerCursor {
+    private static final String SEPARATOR = "|";
+
+    private final PlayerOrder order;
+    private final Comparable<?> value;
+    private final long id;
+
+    private PlayerCursor(PlayerOrder order, Comparable<?> value, long id) {
+        this.order = order;
+        this.value = value;
+        this.id = id;
+    }
+
+    public PlayerOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * @return значение поля сортировки, для сортировки по id - null
+     */
+    public Comparable<?> getValue() {
+        return value;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Метод строит курсор, указывающий на переданного игрока
+     *
+     * @param order сортировка выборки
+     * @param last  последний игрок на странице
+     * @return непрозрачная строка курсора
+     */
+    public static String encode(PlayerOrder order, PlayerView last) {
+        String value;
+        switch (order) {
+            case NAME:
+                value = last.getName();
+                break;
+            case EXPERIENCE:
+                value = String.valueOf(last.getExperience());
+                break;
+            case BIRTHDAY:
+                value = String.valueOf(last.getBirthday());
+                break;
+            case LEVEL:
+                value = String.valueOf(last.getLevel());
+                break;
+            default:
+                value = "";
+        }
+        String raw = order.name() + SEPARATOR + last.getId() + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Метод разбирает строку курсора
+     *
+     * @param cursor строка, полученная из {@link #encode(PlayerOrder, PlayerView)}
+     * @param order  сортировка текущего запроса
+     * @return курсор
+     * @throws BadRequestException если курсор поврежден или построен для другой сортировки
+     */
+    public static PlayerCursor decode(String cursor, PlayerOrder order) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            PlayerOrder cursorOrder = PlayerOrder.valueOf(parts[0]);
+            if (cursorOrder != order) {
+                throw new BadRequestException("Курсор построен для другой сортировки: " + cursorOrder);
+            }
+            long id = Long.parseLong(parts[1]);
+            return new PlayerCursor(order, parseValue(order, parts[2]), id);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    private static Comparable<?> parseValue(PlayerOrder order, String value) {
+        switch (order) {
+            case NAME:
+                return value;
+            case EXPERIENCE:
+            case LEVEL:
+                return Integer.valueOf(value);
+            case BIRTHDAY:
+                return new Date(Long.parseLong(value));
+            default:
+                return null;
+        }
+    }
+}
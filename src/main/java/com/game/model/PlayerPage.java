@@ -0,0 +1,48 @@
+package com.game.model;
+
+
+import java.util.List;
+
+/**
+ * Страница игроков вместе с признаком следующей страницы, курсором на нее
+ * и, если запрошено, общим количеством игроков по фильтру
+ */
+public class PlayerPage {
+    private final List<PlayerView> players;
+    private final boolean hasNext;
+    private final String nextCursor;
+    private final Long totalCount;
+
+    public PlayerPage(List<PlayerView> players, boolean hasNext, String nextCursor, Long totalCount) {
+        this.players = players;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.totalCount = totalCount;
+    }
+
+    public List<PlayerView> getPlayers() {
+        return players;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    /**
+     * @return курсор следующей страницы или null, если страница последняя или выборка не по курсору
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return общее количество игроков по фильтру или null, если подсчет не запрашивался
+     */
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public PlayerPage withTotalCount(long totalCount) {
+        return new PlayerPage(players, hasNext, nextCursor, totalCount);
+    }
+}
@@ -25,6 +25,8 @@ public class PlayerRequest {
     private int pageNumber = 0;
     private int pageSize = 3;
     private PlayerOrder order = PlayerOrder.ID;
+    private String cursor;
+    private boolean withCount = true;
 
     public Boolean getBanned() {
         return banned;
@@ -153,4 +155,20 @@ public class PlayerRequest {
     public void setOrder(PlayerOrder order) {
         this.order = order;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isWithCount() {
+        return withCount;
+    }
+
+    public void setWithCount(boolean withCount) {
+        this.withCount = withCount;
+    }
 }
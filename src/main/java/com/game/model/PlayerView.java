@@ -0,0 +1,112 @@
+package com.game.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.util.Date;
+
+/**
+ * Неизменяемое представление игрока для чтения.
+ * Строится конструктором прямо в запросе (select new), поэтому не попадает в контекст персистентности
+ * и не хранит снимок для dirty checking. Дата рождения - в миллисекундах.
+ * Все поля, кроме id, могут быть null: старые строки сохранялись без level и untilNextLevel
+ */
+public final class PlayerView {
+    private final long id;
+    private final String name;
+    private final String title;
+    private final Race race;
+    private final Profession profession;
+    private final Long birthday;
+    private final Boolean banned;
+    private final Integer experience;
+    private final Integer level;
+    private final Integer untilNextLevel;
+    @JsonIgnore
+    private final long version;
+
+    /**
+     * Типы параметров совпадают с типами полей Player: по ним Hibernate ищет конструктор
+     */
+    public PlayerView(Long id, String name, String title, Race race, Profession profession, Date birthday,
+                      Boolean banned, Integer experience, Integer level, Integer untilNextLevel, Long version) {
+        this.id = id;
+        this.name = name;
+        this.title = title;
+        this.race = race;
+        this.profession = profession;
+        this.birthday = birthday == null ? null : birthday.getTime();
+        this.banned = banned;
+        this.experience = experience;
+        this.level = level;
+        this.untilNextLevel = untilNextLevel;
+        this.version = version;
+    }
+
+    public PlayerView(long id, String name, String title, Race race, Profession profession, long birthday,
+                      boolean banned, int experience, int level, int untilNextLevel, long version) {
+        this.id = id;
+        this.name = name;
+        this.title = title;
+        this.race = race;
+        this.profession = profession;
+        this.birthday = birthday;
+        this.banned = banned;
+        this.experience = experience;
+        this.level = level;
+        this.untilNextLevel = untilNextLevel;
+        this.version = version;
+    }
+
+    public static PlayerView of(Player player) {
+        return new PlayerView(player.getId(), player.getName(), player.getTitle(), player.getRace(),
+                player.getProfession(), player.getBirthday(), player.getBanned(), player.getExperience(),
+                player.getLevel(), player.getUntilNextLevel(), player.getVersion());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Race getRace() {
+        return race;
+    }
+
+    public Profession getProfession() {
+        return profession;
+    }
+
+    public Long getBirthday() {
+        return birthday;
+    }
+
+    public Boolean getBanned() {
+        return banned;
+    }
+
+    public Integer getExperience() {
+        return experience;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    public Integer getUntilNextLevel() {
+        return untilNextLevel;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
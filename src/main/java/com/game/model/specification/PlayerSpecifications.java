@@ -3,6 +3,7 @@ package com.game.model.specification;
 import com.game.entity.Player;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
 import java.util.Date;
 
 public class PlayerSpecifications {
@@ -47,4 +48,35 @@ public class PlayerSpecifications {
                 -> criteriaBuilder.equal(root.get(field), value);
     }
 
+    public static Specification<Player> withId(long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id);
+    }
+
+    public static Specification<Player> withIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.disjunction();
+        }
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Условие "строго после" позиции курсора при сортировке по (field, id)
+     *
+     * @param field поле сортировки, null при сортировке только по id
+     * @param value значение поля сортировки у последнего игрока предыдущей страницы
+     * @param id    id последнего игрока предыдущей страницы
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Player> afterKey(String field, Comparable value, long id) {
+        if (field == null) {
+            return (root, query, criteriaBuilder)
+                    -> criteriaBuilder.greaterThan(root.get("id"), id);
+        }
+        return (root, query, criteriaBuilder)
+                -> criteriaBuilder.or(
+                criteriaBuilder.greaterThan(root.get(field), value),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get(field), value),
+                        criteriaBuilder.greaterThan(root.get("id"), id)));
+    }
 }
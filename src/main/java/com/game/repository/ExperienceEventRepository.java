@@ -0,0 +1,68 @@
+package com.game.repository;
+
+import com.game.model.ExperienceEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Принятые начисления опыта в таблице experience_event; хранятся до записи в player
+ */
+@Repository
+public class ExperienceEventRepository {
+    private static final String SELECT_FOR_UPDATE = "SELECT id, playerId, delta FROM experience_event"
+            + " WHERE playerId IN (%s) FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ExperienceEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Метод сохраняет события одним JDBC-пакетом
+     */
+    public void insertAll(List<ExperienceEvent> events) {
+        jdbcTemplate.batchUpdate("INSERT INTO experience_event(playerId, delta) VALUES (?, ?)",
+                events.stream().map(event -> new Object[]{event.getId(), event.getDelta()}).collect(Collectors.toList()));
+    }
+
+    /**
+     * @return id игроков, у которых есть незаписанные начисления
+     */
+    public List<Long> findPlayerIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT playerId FROM experience_event", Long.class);
+    }
+
+    /**
+     * Метод читает и блокирует до конца транзакции начисления переданных игроков
+     *
+     * @return {id, playerId, delta}
+     */
+    public List<long[]> lockEvents(long[] playerIds) {
+        if (playerIds.length == 0) {
+            return Collections.emptyList();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(playerIds.length, "?"));
+        return jdbcTemplate.query(String.format(SELECT_FOR_UPDATE, placeholders), statement -> {
+            for (int i = 0; i < playerIds.length; i++) {
+                statement.setLong(i + 1, playerIds[i]);
+            }
+        }, (resultSet, rowNum) -> new long[]{resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3)});
+    }
+
+    /**
+     * Метод удаляет прочитанные события по их id: события, сохраненные после чтения, остаются
+     *
+     * @param events строки из lockEvents
+     */
+    public void deleteAll(List<long[]> events) {
+        jdbcTemplate.batchUpdate("DELETE FROM experience_event WHERE id = ?",
+                events.stream().map(event -> new Object[]{event[0]}).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.game.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Точки продолжения фоновых задач в таблице job_checkpoint
+ */
+@Repository
+public class JobCheckpointRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return {lastId, processed} или null, если задача не начиналась или завершена
+     */
+    public long[] find(String name) {
+        List<long[]> rows = jdbcTemplate.query("SELECT lastId, processed FROM job_checkpoint WHERE name = ?",
+                (resultSet, rowNum) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)}, name);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public void save(String name, long lastId, long processed) {
+        int updated = jdbcTemplate.update("UPDATE job_checkpoint SET lastId = ?, processed = ? WHERE name = ?",
+                lastId, processed, name);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO job_checkpoint(name, lastId, processed) VALUES (?, ?, ?)",
+                    name, lastId, processed);
+        }
+    }
+
+    public void delete(String name) {
+        jdbcTemplate.update("DELETE FROM job_checkpoint WHERE name = ?", name);
+    }
+}
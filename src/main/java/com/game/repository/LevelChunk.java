@@ -0,0 +1,52 @@
+package com.game.repository;
+
+/**
+ * Порция строк таблицы player для пересчета уровней и начисления опыта.
+ * Данные хранятся в примитивных массивах, чтобы не создавать объект на каждую строку
+ */
+public class LevelChunk {
+    /**
+     * Значение опыта для строк, где он NULL
+     */
+    public static final int NO_EXPERIENCE = -1;
+
+    final long[] ids;
+    final int[] experience;
+    final int[] levels;
+    final int[] untilNextLevels;
+    final boolean[] changed;
+    int size;
+
+    public LevelChunk(int capacity) {
+        ids = new long[capacity];
+        experience = new int[capacity];
+        levels = new int[capacity];
+        untilNextLevels = new int[capacity];
+        changed = new boolean[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long lastId() {
+        return ids[size - 1];
+    }
+
+    public long id(int index) {
+        return ids[index];
+    }
+
+    public int experience(int index) {
+        return experience[index];
+    }
+
+    /**
+     * Метод записывает новые значения; строка попадет в UPDATE, только если они отличаются от прочитанных
+     */
+    public void setLevels(int index, int level, int untilNextLevel) {
+        changed[index] = levels[index] != level || untilNextLevels[index] != untilNextLevel;
+        levels[index] = level;
+        untilNextLevels[index] = untilNextLevel;
+    }
+}
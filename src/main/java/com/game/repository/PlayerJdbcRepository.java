@@ -0,0 +1,196 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Операции над таблицей player через JDBC, для которых JPA слишком дорог (пакетные вставки и обновления)
+ */
+@Repository
+public class PlayerJdbcRepository {
+    private static final String INSERT = "INSERT INTO player"
+            + "(name, title, race, profession, birthday, banned, experience, level, untilNextLevel)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_LEVELS = "SELECT id, experience, level, untilNextLevel FROM player"
+            + " WHERE id > ? ORDER BY id LIMIT ?";
+    // опыт мог измениться после чтения порции; такая строка не обновляется, уровень для нее посчитал писавший
+    private static final String UPDATE_LEVELS = "UPDATE player SET level = ?, untilNextLevel = ?, version = version + 1"
+            + " WHERE id = ? AND experience = ?";
+    private static final String SELECT_FOR_UPDATE = "SELECT id, name, title, race, profession, birthday, banned,"
+            + " experience, level, untilNextLevel, version FROM player WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    private static final String UPDATE_EXPERIENCE = "UPDATE player SET experience = ?, level = ?, untilNextLevel = ?,"
+            + " version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PlayerJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Метод вставляет игроков одним JDBC-пакетом и проставляет им сгенерированные id
+     *
+     * @param players новые игроки без id
+     */
+    public void insertAll(List<Player> players) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Player player : players) {
+                    statement.setString(1, player.getName());
+                    statement.setString(2, player.getTitle());
+                    statement.setString(3, player.getRace().name());
+                    statement.setString(4, player.getProfession().name());
+                    statement.setDate(5, new Date(player.getBirthday().getTime()));
+                    statement.setBoolean(6, player.getBanned());
+                    statement.setInt(7, player.getExperience());
+                    statement.setInt(8, player.getLevel());
+                    statement.setInt(9, player.getUntilNextLevel());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Player player : players) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Драйвер вернул меньше ключей, чем вставлено строк");
+                        }
+                        player.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Метод читает следующую по id порцию строк (по первичному ключу, без OFFSET)
+     *
+     * @param afterId id, после которого начинается порция
+     * @param chunk   куда прочитать; читается не больше его емкости
+     * @return количество прочитанных строк, 0 - таблица закончилась
+     */
+    public int loadLevels(long afterId, LevelChunk chunk) {
+        chunk.size = 0;
+        jdbcTemplate.query(SELECT_LEVELS, resultSet -> {
+            int i = chunk.size++;
+            chunk.ids[i] = resultSet.getLong(1);
+            int experience = resultSet.getInt(2);
+            chunk.experience[i] = resultSet.wasNull() ? LevelChunk.NO_EXPERIENCE : experience;
+            chunk.levels[i] = resultSet.getInt(3);
+            chunk.untilNextLevels[i] = resultSet.getInt(4);
+            chunk.changed[i] = false;
+        }, afterId, chunk.ids.length);
+        return chunk.size;
+    }
+
+    /**
+     * Метод записывает одним JDBC-пакетом уровни строк порции, у которых они изменились.
+     * Строка обновляется, только если ее опыт все еще равен прочитанному
+     *
+     * @return количество обновленных строк
+     */
+    public int updateLevels(LevelChunk chunk) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            int batched = 0;
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_LEVELS)) {
+                for (int i = 0; i < chunk.size; i++) {
+                    if (chunk.changed[i]) {
+                        statement.setInt(1, chunk.levels[i]);
+                        statement.setInt(2, chunk.untilNextLevels[i]);
+                        statement.setLong(3, chunk.ids[i]);
+                        statement.setInt(4, chunk.experience[i]);
+                        statement.addBatch();
+                        batched++;
+                    }
+                }
+                if (batched == 0) {
+                    return 0;
+                }
+                int updated = 0;
+                for (int count : statement.executeBatch()) {
+                    // драйвер может не сообщить количество (SUCCESS_NO_INFO), тогда строка считается обновленной
+                    updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+                }
+                return updated;
+            }
+        });
+    }
+
+    /**
+     * Метод читает и блокирует до конца транзакции игроков с переданными id (в порядке id, чтобы не было взаимных блокировок)
+     *
+     * @return игроки в порядке id; отсутствующих в таблице id в списке нет
+     */
+    public List<Player> lockPlayers(long[] ids) {
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.length, "?"));
+        return jdbcTemplate.query(String.format(SELECT_FOR_UPDATE, placeholders), statement -> {
+            for (int i = 0; i < ids.length; i++) {
+                statement.setLong(i + 1, ids[i]);
+            }
+        }, (resultSet, rowNum) -> toPlayer(resultSet));
+    }
+
+    /**
+     * Метод записывает одним JDBC-пакетом опыт и уровни игроков и увеличивает версию строк.
+     * Строки должны быть заблокированы в этой же транзакции (lockPlayers), версия в объектах увеличивается так же
+     *
+     * @return количество обновленных строк
+     */
+    public int updateExperience(List<Player> players) {
+        if (players.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_EXPERIENCE)) {
+                for (Player player : players) {
+                    statement.setInt(1, player.getExperience());
+                    statement.setInt(2, player.getLevel());
+                    statement.setInt(3, player.getUntilNextLevel());
+                    statement.setLong(4, player.getId());
+                    statement.addBatch();
+                    player.setVersion(player.getVersion() + 1);
+                }
+                statement.executeBatch();
+            }
+            return players.size();
+        });
+    }
+
+    public long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player", Long.class);
+    }
+
+    private static Player toPlayer(ResultSet resultSet) throws SQLException {
+        Player player = new Player();
+        player.setId(resultSet.getLong("id"));
+        player.setName(resultSet.getString("name"));
+        player.setTitle(resultSet.getString("title"));
+        String race = resultSet.getString("race");
+        player.setRace(race == null ? null : Race.valueOf(race));
+        String profession = resultSet.getString("profession");
+        player.setProfession(profession == null ? null : Profession.valueOf(profession));
+        player.setBirthday(resultSet.getDate("birthday"));
+        player.setBanned(resultSet.getObject("banned", Boolean.class));
+        player.setExperience(resultSet.getObject("experience", Integer.class));
+        player.setLevel(resultSet.getObject("level", Integer.class));
+        player.setUntilNextLevel(resultSet.getObject("untilNextLevel", Integer.class));
+        player.setVersion(resultSet.getLong("version"));
+        return player;
+    }
+}
@@ -2,10 +2,20 @@ package com.game.repository;
 
 import com.game.entity.Player;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.List;
+
 /**
  * Интерфейс репозитория для работы с сущностями Player
  */
-public interface PlayerRepository extends PagingAndSortingRepository<Player, Long>, JpaSpecificationExecutor<Player> {
+public interface PlayerRepository extends PagingAndSortingRepository<Player, Long>, JpaSpecificationExecutor<Player>,
+        PlayerRepositoryCustom {
+
+    /**
+     * @return строки вида [id, name, title] для всех игроков
+     */
+    @Query("select p.id, p.name, p.title from Player p")
+    List<Object[]> findAllNamesAndTitles();
 }
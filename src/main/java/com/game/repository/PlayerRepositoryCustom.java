@@ -0,0 +1,72 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+import com.game.model.PlayerView;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Дополнительные методы репозитория, которых нет в Spring Data
+ */
+public interface PlayerRepositoryCustom {
+
+    /**
+     * Метод выбирает представления игроков без дополнительного запроса на общее количество.
+     * Сущности не создаются, строки сразу собираются в PlayerView
+     *
+     * @param spec   условия фильтрации
+     * @param sort   сортировка
+     * @param offset сколько строк пропустить
+     * @param limit  максимальное количество строк
+     * @return список игроков
+     */
+    List<PlayerView> findViews(Specification<Player> spec, Sort sort, long offset, int limit);
+
+    Optional<PlayerView> findViewById(long id);
+
+    /**
+     * Метод читает всех игроков по условию однонаправленным курсором и передает их по одному.
+     * Сущности не создаются, поэтому память не растет с размером выборки.
+     * Должен вызываться внутри транзакции
+     *
+     * @param spec      условия фильтрации
+     * @param sort      сортировка
+     * @param fetchSize сколько строк драйвер читает за один раз
+     * @param action    обработчик каждого игрока
+     */
+    void forEachView(Specification<Player> spec, Sort sort, int fetchSize, Consumer<PlayerView> action);
+
+    /**
+     * Метод выбирает id игроков по условию и блокирует их строки до конца транзакции (SELECT ... FOR UPDATE).
+     * Должен вызываться внутри транзакции
+     *
+     * @param spec  условия отбора; запрос в условие не передается (null)
+     * @param limit максимальное количество id
+     * @return id в порядке возрастания
+     */
+    List<Long> lockIds(Specification<Player> spec, int limit);
+
+    /**
+     * Метод изменяет поля у всех игроков по условию одним UPDATE, без загрузки сущностей,
+     * и увеличивает версию каждой измененной строки. Должен вызываться внутри транзакции
+     *
+     * @param spec   условия отбора; запрос в условие не передается (null)
+     * @param values имя поля - новое значение
+     * @return количество измененных строк
+     */
+    int updateAll(Specification<Player> spec, Map<String, Object> values);
+
+    /**
+     * Метод удаляет всех игроков по условию одним DELETE.
+     * Должен вызываться внутри транзакции
+     *
+     * @param spec условия отбора; запрос в условие не передается (null)
+     * @return количество удаленных строк
+     */
+    int deleteAll(Specification<Player> spec);
+}
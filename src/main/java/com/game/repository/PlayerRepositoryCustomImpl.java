@@ -0,0 +1,104 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+import com.game.model.PlayerView;
+import com.game.model.specification.PlayerSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Реализация дополнительных методов репозитория через Criteria API
+ */
+public class PlayerRepositoryCustomImpl implements PlayerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PlayerView> findViews(Specification<Player> spec, Sort sort, long offset, int limit) {
+        return entityManager.createQuery(createQuery(spec, sort))
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<PlayerView> findViewById(long id) {
+        List<PlayerView> views = findViews(PlayerSpecifications.withId(id), Sort.unsorted(), 0, 1);
+        return views.isEmpty() ? Optional.empty() : Optional.of(views.get(0));
+    }
+
+    @Override
+    public void forEachView(Specification<Player> spec, Sort sort, int fetchSize, Consumer<PlayerView> action) {
+        try (Stream<PlayerView> players = entityManager.createQuery(createQuery(spec, sort))
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()) {
+            players.forEach(action);
+        }
+    }
+
+    @Override
+    public List<Long> lockIds(Specification<Player> spec, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(root.get("id"));
+        query.where(spec.toPredicate(root, null, criteriaBuilder));
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int updateAll(Specification<Player> spec, Map<String, Object> values) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Player> update = criteriaBuilder.createCriteriaUpdate(Player.class);
+        Root<Player> root = update.from(Player.class);
+        values.forEach(update::set);
+        update.set(root.<Long>get("version"), criteriaBuilder.sum(root.<Long>get("version"), 1L));
+        update.where(spec.toPredicate(root, null, criteriaBuilder));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int deleteAll(Specification<Player> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Player> delete = criteriaBuilder.createCriteriaDelete(Player.class);
+        Root<Player> root = delete.from(Player.class);
+        delete.where(spec.toPredicate(root, null, criteriaBuilder));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    private CriteriaQuery<PlayerView> createQuery(Specification<Player> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PlayerView> query = criteriaBuilder.createQuery(PlayerView.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(criteriaBuilder.construct(PlayerView.class,
+                root.get("id"), root.get("name"), root.get("title"), root.get("race"), root.get("profession"),
+                root.get("birthday"), root.get("banned"), root.get("experience"), root.get("level"),
+                root.get("untilNextLevel"), root.get("version")));
+        query.where(spec.toPredicate(root, query, criteriaBuilder));
+        query.orderBy(toOrders(sort, root, criteriaBuilder));
+        return query;
+    }
+}
@@ -0,0 +1,255 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import com.game.model.ExperienceEvent;
+import com.game.model.exception.BadRequestException;
+import com.game.model.exception.ServiceUnavailableException;
+import com.game.repository.ExperienceEventRepository;
+import com.game.repository.PlayerJdbcRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Прием начислений опыта. Принятые события сохраняются в experience_event до ответа клиенту, в памяти
+ * копятся только id игроков с начислениями. Раз в flushMs порции игроков записываются: строки player
+ * и их события блокируются SELECT ... FOR UPDATE, опыт и уровни обновляются одним JDBC-пакетом, события
+ * удаляются в той же транзакции. Частые начисления одному игроку превращаются в одну запись в player за окно.
+ * <p>
+ * Если в очереди больше maxPending игроков, новые события отклоняются (503). Порция, которую не удалось
+ * записать, возвращается в очередь; после перезапуска очередь восстанавливается из experience_event,
+ * поэтому принятое начисление записывается хотя бы один раз
+ */
+@Component
+public class ExperienceIngestor implements SmartInitializingSingleton, DisposableBean {
+    static final String NAME = "experience-flush";
+
+    private final PlayerJdbcRepository playerJdbcRepository;
+    private final ExperienceEventRepository experienceEventRepository;
+    private final List<PlayerChangeListener> listeners;
+    private final TransactionTemplate transaction;
+    private final long flushMs;
+    private final int batchSize;
+    private final int maxPending;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile String lastError;
+
+    @Autowired
+    public ExperienceIngestor(PlayerJdbcRepository playerJdbcRepository,
+                              ExperienceEventRepository experienceEventRepository,
+                              List<PlayerChangeListener> listeners, PlatformTransactionManager transactionManager,
+                              @Value("${experience.flushMs:200}") long flushMs,
+                              @Value("${experience.batchSize:500}") int batchSize,
+                              @Value("${experience.maxPending:100000}") int maxPending) {
+        this.playerJdbcRepository = playerJdbcRepository;
+        this.experienceEventRepository = experienceEventRepository;
+        this.listeners = listeners;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.flushMs = flushMs;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recover();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Метод сохраняет события и ставит игроков в очередь на запись
+     *
+     * @return количество принятых событий; к этому моменту события закоммичены
+     * @throws ServiceUnavailableException если очередь переполнена; ни одно событие не принято
+     */
+    public int submit(List<ExperienceEvent> events) {
+        if (events == null) {
+            throw new BadRequestException();
+        }
+        for (int i = 0; i < events.size(); i++) {
+            validate(i, events.get(i));
+        }
+        if (pending.size() >= maxPending) {
+            rejected.addAndGet(events.size());
+            throw new ServiceUnavailableException("Слишком много необработанных начислений опыта");
+        }
+        transaction.executeWithoutResult(status -> experienceEventRepository.insertAll(events));
+        // в очередь только после коммита, иначе запись могла бы не увидеть событие и забыть игрока
+        for (ExperienceEvent event : events) {
+            if (!pending.add(event.getId())) {
+                coalesced.incrementAndGet();
+            }
+        }
+        accepted.addAndGet(events.size());
+        return events.size();
+    }
+
+    /**
+     * Метод записывает все накопленные изменения порциями по batchSize игроков
+     *
+     * @return количество обновленных строк
+     */
+    public synchronized int flush() {
+        int result = 0;
+        Iterator<Long> ids = pending.iterator();
+        while (ids.hasNext()) {
+            SortedSet<Long> batch = new TreeSet<>();
+            while (ids.hasNext() && batch.size() < batchSize) {
+                Long id = ids.next();
+                if (pending.remove(id)) {
+                    batch.add(id);
+                }
+            }
+            if (!batch.isEmpty()) {
+                result += apply(batch);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Метод ставит в очередь игроков с сохраненными, но не записанными начислениями (например, после перезапуска)
+     *
+     * @return количество таких игроков
+     */
+    public int recover() {
+        List<Long> ids = experienceEventRepository.findPlayerIds();
+        pending.addAll(ids);
+        return ids.size();
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pending", pending.size());
+        result.put("accepted", accepted.get());
+        result.put("coalesced", coalesced.get());
+        result.put("rejected", rejected.get());
+        result.put("batches", batches.get());
+        result.put("written", written.get());
+        result.put("dropped", dropped.get());
+        result.put("failures", failures.get());
+        result.put("lastError", lastError);
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushMs * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Метод записывает начисления порции игроков и удаляет их события в одной транзакции;
+     * при ошибке игроки возвращаются в очередь, события остаются в таблице
+     *
+     * @param batch id игроков в порядке возрастания
+     */
+    private int apply(SortedSet<Long> batch) {
+        long[] ids = batch.stream().mapToLong(Long::longValue).toArray();
+        int[] missing = new int[1];
+        List<Player> changed;
+        try {
+            changed = transaction.execute(status -> {
+                // сначала строки player, как при обновлении игрока, чтобы порядок блокировок был один
+                List<Player> players = playerJdbcRepository.lockPlayers(ids);
+                List<long[]> events = experienceEventRepository.lockEvents(ids);
+                Map<Long, Long> deltas = new HashMap<>();
+                for (long[] event : events) {
+                    deltas.merge(event[1], event[2], Long::sum);
+                }
+                List<Player> result = new ArrayList<>(players.size());
+                for (Player player : players) {
+                    Long delta = deltas.remove(player.getId());
+                    if (delta == null) {
+                        continue;
+                    }
+                    int previous = player.getExperience() == null ? 0 : player.getExperience();
+                    long experience = previous + delta;
+                    int exp = (int) Math.max(0, Math.min(LevelEngine.MAX_EXPERIENCE, experience));
+                    if (player.getExperience() != null && exp == previous) {
+                        continue;
+                    }
+                    int level = LevelEngine.level(exp);
+                    player.setExperience(exp);
+                    player.setLevel(level);
+                    player.setUntilNextLevel(LevelEngine.untilNextLevel(level, exp));
+                    result.add(player);
+                }
+                // удаленные игроки не найдены в таблице, их начисления отбрасываются
+                missing[0] = deltas.size();
+                playerJdbcRepository.updateExperience(result);
+                experienceEventRepository.deleteAll(events);
+                return result;
+            });
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            lastError = e.getMessage();
+            pending.addAll(batch);
+            return 0;
+        }
+        batches.incrementAndGet();
+        written.addAndGet(changed.size());
+        dropped.addAndGet(missing[0]);
+        // строки прочитаны под блокировкой и записаны в этой транзакции, поэтому это и есть закоммиченное состояние
+        for (Player player : changed) {
+            listeners.forEach(listener -> listener.playerSaved(player));
+        }
+        return changed.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+        }
+    }
+
+    private static void validate(int index, ExperienceEvent event) {
+        if (event == null || event.getId() == null || event.getId() <= 0 || event.getDelta() == null
+                || event.getDelta() < -LevelEngine.MAX_EXPERIENCE || event.getDelta() > LevelEngine.MAX_EXPERIENCE) {
+            throw new BadRequestException("Неправильное событие начисления опыта с индексом " + index);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import com.game.model.PlayerView;
+import com.game.repository.PlayerRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Основа структур в памяти, которые строятся по всей таблице player и дальше поддерживаются
+ * событиями PlayerChangeListener. Состояние - копия данных только этого узла.
+ * <p>
+ * Перезагрузка читает таблицу потоком в новое состояние без блокировки. События, пришедшие за это время,
+ * откладываются и применяются к новому состоянию перед подменой, поэтому изменения, закоммиченные
+ * после начала чтения, не теряются. Событие о версии строки старше известной (см. PlayerVersions) пропускается.
+ * <p>
+ * Пока идет перезагрузка или в таблице есть строка, которую состояние не может представить (put вернул false),
+ * структура не готова, и запросы идут в базу до следующей перезагрузки
+ *
+ * @param <S> состояние; меняется только под блокировкой записи
+ */
+public abstract class InMemoryPlayerIndex<S> implements PlayerChangeListener, SmartInitializingSingleton {
+    private final PlayerRepository playerRepository;
+    private final PlayerVersions versions;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int fetchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object reloadMonitor = new Object();
+
+    private S state;
+    private List<Change> deferred;
+    private boolean complete;
+    private volatile boolean ready;
+    private volatile long loadedAt;
+
+    protected InMemoryPlayerIndex(PlayerRepository playerRepository, PlayerVersions versions,
+                                  PlatformTransactionManager transactionManager, boolean enabled, int fetchSize) {
+        this.playerRepository = playerRepository;
+        this.versions = versions;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @param previous текущее состояние или null; по нему можно выбрать начальный размер
+     * @return пустое состояние для перезагрузки
+     */
+    protected abstract S newState(S previous);
+
+    /**
+     * Метод добавляет или заменяет игрока
+     *
+     * @return false, если состояние не может представить игрока и больше не точно
+     */
+    protected abstract boolean put(S state, PlayerView player);
+
+    protected abstract void remove(S state, long id);
+
+    /**
+     * Метод вызывается после загрузки таблицы, до применения отложенных событий
+     */
+    protected void loaded(S state) {
+    }
+
+    /**
+     * Метод дописывает в статистику размеры состояния; вызывается под блокировкой чтения
+     */
+    protected void stats(S state, Map<String, Object> result) {
+    }
+
+    /**
+     * @return представление игрока из события; по умолчанию - все поля как есть
+     */
+    protected PlayerView toView(Player player) {
+        return PlayerView.of(player);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        playersReloaded();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return результат reader или null, если структура не готова или сейчас меняется
+     */
+    protected final <T> T tryRead(Function<S, T> reader) {
+        if (!ready || !lock.readLock().tryLock()) {
+            return null;
+        }
+        try {
+            return ready ? reader.apply(state) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Метод ждет окончания изменений и читает состояние. Готовность нужно проверять в reader через isReady
+     */
+    protected final <T> T read(Function<S, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public final void playerSaved(Player player) {
+        if (enabled) {
+            apply(new Change(player.getId(), toView(player)));
+        }
+    }
+
+    @Override
+    public final void playerDeleted(long id) {
+        if (enabled) {
+            apply(new Change(id, null));
+        }
+    }
+
+    /**
+     * Метод заново читает таблицу в порядке id. На время загрузки запросы уходят в базу,
+     * а события откладываются до подмены состояния
+     */
+    @Override
+    public final void playersReloaded() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (reloadMonitor) {
+            S previous;
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                deferred = new ArrayList<>();
+                previous = state;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            S loaded = newState(previous);
+            boolean[] loadedComplete = {true};
+            boolean success = false;
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> playerRepository.forEachView(
+                        (root, query, criteriaBuilder) -> criteriaBuilder.conjunction(), Sort.by("id"), fetchSize,
+                        player -> loadedComplete[0] &= put(loaded, player)));
+                loaded(loaded);
+                success = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    List<Change> changes = deferred;
+                    deferred = null;
+                    // при ошибке загрузки старое состояние тоже неверно: перезагрузку вызывают после массовых изменений
+                    state = success ? loaded : null;
+                    complete = success && loadedComplete[0];
+                    if (success) {
+                        loadedAt = System.currentTimeMillis();
+                        changes.forEach(this::applyLocked);
+                    }
+                    ready = complete;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("ready", ready);
+        result.put("loadedAt", loadedAt);
+        lock.readLock().lock();
+        try {
+            if (state != null) {
+                stats(state, result);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            if (deferred != null) {
+                deferred.add(change);
+            } else {
+                applyLocked(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(Change change) {
+        if (state == null) {
+            return;
+        }
+        if (change.player == null) {
+            versions.deleted(change.id);
+            remove(state, change.id);
+        } else if (versions.isLatest(change.id, change.player.getVersion()) && !put(state, change.player)) {
+            complete = false;
+            ready = false;
+        }
+    }
+
+    /**
+     * Изменение игрока; player == null - удаление
+     */
+    private static class Change {
+        final long id;
+        final PlayerView player;
+
+        Change(long id, PlayerView player) {
+            this.id = id;
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.game.service;
+
+/**
+ * Расчет уровня по опыту через предрассчитанные таблицы, без вычислений с плавающей точкой.
+ * Уровень L достигается при опыте 50 * L * (L + 1), что совпадает с формулой
+ * (sqrt(2500 + 200 * exp) - 50) / 100 на всем допустимом диапазоне опыта.
+ * <p>
+ * Соседние пороги отличаются минимум на 100, поэтому в отрезок опыта длины BUCKET
+ * попадает не больше одного порога: уровень находится одним чтением из таблицы и одним сравнением
+ */
+public final class LevelEngine {
+    public static final int MAX_EXPERIENCE = 10_000_000;
+
+    private static final int BUCKET = 100;
+
+    /**
+     * THRESHOLDS[L] - минимальный опыт для уровня L; последний элемент больше MAX_EXPERIENCE
+     */
+    private static final int[] THRESHOLDS;
+
+    /**
+     * BUCKET_LEVELS[i] - уровень при опыте i * BUCKET
+     */
+    private static final short[] BUCKET_LEVELS;
+
+    static {
+        int levels = 0;
+        while (threshold(levels) <= MAX_EXPERIENCE) {
+            levels++;
+        }
+        THRESHOLDS = new int[levels + 1];
+        for (int level = 0; level <= levels; level++) {
+            THRESHOLDS[level] = threshold(level);
+        }
+        BUCKET_LEVELS = new short[MAX_EXPERIENCE / BUCKET + 1];
+        int level = 0;
+        for (int i = 0; i < BUCKET_LEVELS.length; i++) {
+            while (THRESHOLDS[level + 1] <= i * BUCKET) {
+                level++;
+            }
+            BUCKET_LEVELS[i] = (short) level;
+        }
+    }
+
+    private LevelEngine() {
+    }
+
+    /**
+     * Метод рассчитывает уровень игрока
+     *
+     * @param exp опыт игрока, от 0 до MAX_EXPERIENCE
+     * @return уровень игрока
+     */
+    public static int level(int exp) {
+        if (exp < 0 || exp > MAX_EXPERIENCE) {
+            throw new IllegalArgumentException("Опыт вне допустимого диапазона: " + exp);
+        }
+        int level = BUCKET_LEVELS[exp / BUCKET];
+        return exp >= THRESHOLDS[level + 1] ? level + 1 : level;
+    }
+
+    /**
+     * Метод рассчитывает опыт до следующего уровня
+     *
+     * @param level уровень игрока
+     * @param exp   опыт игрока
+     * @return опыт до следующего уровня
+     */
+    public static int untilNextLevel(int level, int exp) {
+        return threshold(level + 1) - exp;
+    }
+
+    /**
+     * @return минимальный опыт для уровня
+     */
+    public static int threshold(int level) {
+        return 50 * level * (level + 1);
+    }
+
+    public static int maxLevel() {
+        return THRESHOLDS.length - 2;
+    }
+}
@@ -0,0 +1,194 @@
+package com.game.service;
+
+import com.game.repository.JobCheckpointRepository;
+import com.game.repository.LevelChunk;
+import com.game.repository.PlayerJdbcRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Фоновый пересчет level и untilNextLevel по всей таблице player.
+ * Таблица читается порциями по первичному ключу, уровни порции считаются параллельно в ForkJoinPool,
+ * изменившиеся строки записываются JDBC-пакетом. После каждой порции в той же транзакции
+ * сохраняется точка продолжения, поэтому прерванный пересчет продолжается с места остановки
+ */
+@Component
+public class LevelRecomputeJob implements DisposableBean {
+    static final String NAME = "level-recompute";
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    public enum Status {IDLE, RUNNING, DONE, FAILED}
+
+    private final PlayerJdbcRepository playerJdbcRepository;
+    private final JobCheckpointRepository checkpoints;
+    private final List<PlayerChangeListener> listeners;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Status status = Status.IDLE;
+    private volatile long total;
+    private volatile long processed;
+    private volatile long updated;
+    private volatile long skipped;
+    private volatile long lastId;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile String error;
+
+    @Autowired
+    public LevelRecomputeJob(PlayerJdbcRepository playerJdbcRepository, JobCheckpointRepository checkpoints,
+                             List<PlayerChangeListener> listeners, PlatformTransactionManager transactionManager,
+                             @Value("${recompute.chunkSize:10000}") int chunkSize,
+                             @Value("${recompute.parallelism:0}") int parallelism) {
+        this.playerJdbcRepository = playerJdbcRepository;
+        this.checkpoints = checkpoints;
+        this.listeners = listeners;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Метод запускает пересчет в фоне. Если есть точка продолжения, пересчет продолжается с нее
+     *
+     * @return false, если пересчет уже идет
+     */
+    public synchronized boolean start() {
+        if (status == Status.RUNNING) {
+            return false;
+        }
+        status = Status.RUNNING;
+        error = null;
+        updated = 0;
+        skipped = 0;
+        startedAt = System.currentTimeMillis();
+        finishedAt = 0;
+        runner.execute(this::run);
+        return true;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return состояние и счетчики пересчета
+     */
+    public Map<String, Object> progress() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", status);
+        result.put("total", total);
+        result.put("processed", processed);
+        result.put("updated", updated);
+        result.put("skipped", skipped);
+        result.put("lastId", lastId);
+        result.put("startedAt", startedAt);
+        result.put("finishedAt", finishedAt);
+        result.put("error", error);
+        return result;
+    }
+
+    private void run() {
+        try {
+            long[] checkpoint = checkpoints.find(NAME);
+            lastId = checkpoint == null ? 0 : checkpoint[0];
+            processed = checkpoint == null ? 0 : checkpoint[1];
+            total = playerJdbcRepository.count();
+            LevelChunk chunk = new LevelChunk(chunkSize);
+            while (playerJdbcRepository.loadLevels(lastId, chunk) > 0) {
+                pool.invoke(new ComputeLevels(chunk, 0, chunk.size()));
+                skipped += countInvalid(chunk);
+                long chunkLastId = chunk.lastId();
+                long chunkProcessed = processed + chunk.size();
+                updated += transaction.execute(status -> {
+                    int count = playerJdbcRepository.updateLevels(chunk);
+                    checkpoints.save(NAME, chunkLastId, chunkProcessed);
+                    return count;
+                });
+                lastId = chunkLastId;
+                processed = chunkProcessed;
+            }
+            checkpoints.delete(NAME);
+            status = Status.DONE;
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            status = Status.FAILED;
+        } finally {
+            finishedAt = System.currentTimeMillis();
+            if (updated > 0) {
+                listeners.forEach(PlayerChangeListener::playersReloaded);
+            }
+        }
+    }
+
+    /**
+     * Строки с NULL или недопустимым опытом пропускаются: иначе LevelEngine бросит исключение,
+     * и каждое продолжение пересчета будет падать на той же строке
+     */
+    private static boolean isValid(int exp) {
+        return exp >= 0 && exp <= LevelEngine.MAX_EXPERIENCE;
+    }
+
+    private static int countInvalid(LevelChunk chunk) {
+        int result = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!isValid(chunk.experience(i))) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private static class ComputeLevels extends RecursiveAction {
+        private final LevelChunk chunk;
+        private final int from;
+        private final int to;
+
+        ComputeLevels(LevelChunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    int exp = chunk.experience(i);
+                    if (!isValid(exp)) {
+                        continue;
+                    }
+                    int level = LevelEngine.level(exp);
+                    chunk.setLevels(i, level, LevelEngine.untilNextLevel(level, exp));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ComputeLevels(chunk, from, middle), new ComputeLevels(chunk, middle, to));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.game.service;
+
+import com.game.entity.Player;
+
+/**
+ * Слушатель изменений игроков. PlayerServiceImpl вызывает его после успешной записи в базу,
+ * через него поддерживаются в актуальном состоянии структуры в памяти (индексы, кэши)
+ */
+public interface PlayerChangeListener {
+
+    /**
+     * Игрок создан или изменен
+     *
+     * @param player состояние игрока после записи
+     */
+    void playerSaved(Player player);
+
+    /**
+     * Игрок удален
+     *
+     * @param id id удаленного игрока
+     */
+    void playerDeleted(long id);
+
+    /**
+     * Данные изменились массово или таблица была перезаполнена: состояние нужно перестроить целиком
+     */
+    void playersReloaded();
+}
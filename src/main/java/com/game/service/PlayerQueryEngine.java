@@ -0,0 +1,23 @@
+package com.game.service;
+
+import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
+
+import java.util.List;
+
+/**
+ * Источник ответов на выборки и подсчеты в обход JPA.
+ * PlayerServiceImpl опрашивает источники по порядку (@Order) и идет в базу, если ни один не ответил
+ */
+public interface PlayerQueryEngine {
+
+    /**
+     * @return страница игроков по фильтрам, сортировке и странице запроса или null, если источник не может ответить
+     */
+    List<PlayerView> findAll(PlayerRequest request);
+
+    /**
+     * @return количество игроков по фильтрам запроса или null, если источник не может ответить
+     */
+    Long count(PlayerRequest request);
+}
@@ -0,0 +1,61 @@
+package com.game.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Перестройка структур в памяти после массовых изменений в фоновом потоке, а не в потоке запроса.
+ * Запросы, пришедшие до начала перестройки, склеиваются в одну; пришедшие во время нее - в одну следующую,
+ * потому что текущая могла уже прочитать строки до их изменения
+ */
+@Component
+public class PlayerReloader implements DisposableBean {
+    static final String NAME = "players-reload";
+    private static final Log logger = LogFactory.getLog(PlayerReloader.class);
+
+    private final List<PlayerChangeListener> listeners;
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PlayerReloader(List<PlayerChangeListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Метод ставит перестройку в очередь, если она еще не поставлена
+     */
+    public void reload() {
+        if (queued.compareAndSet(false, true)) {
+            executor.execute(this::run);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run() {
+        queued.set(false);
+        for (PlayerChangeListener listener : listeners) {
+            try {
+                listener.playersReloaded();
+            } catch (RuntimeException e) {
+                logger.error("Не удалось перестроить " + listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
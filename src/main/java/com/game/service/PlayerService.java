@@ -1,23 +1,68 @@
 package com.game.service;
 
 import com.game.entity.Player;
+import com.game.model.PlayerBatchResult;
+import com.game.model.PlayerPage;
 import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс сервиса для работы с PlayerRepository
  */
 public interface PlayerService {
-    List<Player> getAllPlayers(PlayerRequest request);
+    List<PlayerView> getAllPlayers(PlayerRequest request);
+
+    /**
+     * Выборка страницы по курсору: вместо OFFSET используется условие на ключ сортировки
+     */
+    PlayerPage getPlayersAfterCursor(PlayerRequest request);
+
+    /**
+     * Страница игроков и общее количество по тому же фильтру в одной транзакции.
+     * Подсчет не выполняется, если request.withCount = false
+     */
+    PlayerPage getPage(PlayerRequest request);
 
     long count(PlayerRequest playerRequest);
 
+    /**
+     * Потоковая выгрузка всех игроков по фильтру без постраничной разбивки
+     *
+     * @param consumer получает игроков по одному в порядке сортировки запроса
+     */
+    void exportPlayers(PlayerRequest request, Consumer<PlayerView> consumer);
+
     Player createPlayer(PlayerRequest playerRequest);
 
-    Player getPlayerById(long id);
+    /**
+     * Пакетное создание игроков. Невалидные элементы пропускаются и попадают в список ошибок.
+     * Игроки вставляются частями по batch.insertSize, каждая в своей транзакции: если часть не записалась,
+     * предыдущие части остаются в базе. Больше batch.maxSize элементов - запрос отклоняется
+     */
+    PlayerBatchResult createPlayers(List<PlayerRequest> requests);
+
+    PlayerView getPlayerById(long id);
 
     void deletePlayer(long id);
 
+    /**
+     * Удаление всех игроков, подходящих под фильтры запроса, одним DELETE.
+     * Без фильтров запрос отклоняется
+     *
+     * @return количество удаленных игроков
+     */
+    int deletePlayers(PlayerRequest request);
+
+    /**
+     * Бан или разбан всех игроков, подходящих под фильтры запроса, одним UPDATE.
+     * Без фильтров запрос отклоняется
+     *
+     * @return количество измененных игроков
+     */
+    int setBanned(PlayerRequest request, boolean banned);
+
     Player updatePlayer(long id, PlayerRequest request);
 }
@@ -4,21 +4,40 @@ import com.game.controller.PlayerOrder;
 import com.game.entity.Player;
 import com.game.entity.Profession;
 import com.game.entity.Race;
+import com.game.metrics.SlowQueryLog;
+import com.game.model.PlayerBatchResult;
+import com.game.model.PlayerCursor;
+import com.game.model.PlayerPage;
 import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
 import com.game.model.exception.BadRequestException;
 import com.game.model.exception.NotFoundException;
+import com.game.repository.PlayerJdbcRepository;
 import com.game.repository.PlayerRepository;
+import com.game.service.cache.PlayerCache;
+import com.game.service.cache.PlayerQueryCache;
+import com.game.service.search.PlayerTextSearch;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.game.model.specification.PlayerSpecifications.*;
 
@@ -28,80 +47,320 @@ import static com.game.model.specification.PlayerSpecifications.*;
 @Service
 public class PlayerServiceImpl implements PlayerService {
     PlayerRepository playerRepository;
+    PlayerJdbcRepository playerJdbcRepository;
     ConversionService conversionService;
+    PlayerTextSearch textSearch;
+    PlayerCache playerCache;
+    PlayerQueryCache queryCache;
+    SlowQueryLog slowQueryLog;
+    List<PlayerQueryEngine> queryEngines;
+    List<PlayerChangeListener> listeners;
+    PlayerReloader reloader;
+    TransactionTemplate transaction;
+    TransactionTemplate readOnlyTransaction;
+    int maxCandidateIds;
+    int insertBatchSize;
+    int maxBatchSize;
+    int exportFetchSize;
+    int maxBulkEvents;
 
     @Autowired
-    public PlayerServiceImpl(PlayerRepository playerRepository, ConversionService conversionService) {
+    public PlayerServiceImpl(PlayerRepository playerRepository, PlayerJdbcRepository playerJdbcRepository,
+                             ConversionService conversionService,
+                             PlayerTextSearch textSearch, PlayerCache playerCache, PlayerQueryCache queryCache,
+                             SlowQueryLog slowQueryLog, List<PlayerQueryEngine> queryEngines,
+                             List<PlayerChangeListener> listeners, PlayerReloader reloader,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${search.maxCandidateIds:1000}") int maxCandidateIds,
+                             @Value("${batch.insertSize:1000}") int insertBatchSize,
+                             @Value("${batch.maxSize:10000}") int maxBatchSize,
+                             @Value("${export.fetchSize:1000}") int exportFetchSize,
+                             @Value("${bulk.maxEvents:1000}") int maxBulkEvents) {
         this.playerRepository = playerRepository;
+        this.playerJdbcRepository = playerJdbcRepository;
         this.conversionService = conversionService;
+        this.textSearch = textSearch;
+        this.playerCache = playerCache;
+        this.queryCache = queryCache;
+        this.slowQueryLog = slowQueryLog;
+        this.queryEngines = queryEngines;
+        this.listeners = listeners;
+        this.reloader = reloader;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // в read-only транзакции Hibernate не делает flush, а при настроенных репликах чтение идет на них
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxCandidateIds = maxCandidateIds;
+        this.insertBatchSize = insertBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.exportFetchSize = exportFetchSize;
+        this.maxBulkEvents = maxBulkEvents;
     }
 
     @Override
-    public List<Player> getAllPlayers(PlayerRequest request) {
-        return playerRepository.findAll(getSpecification(request), getPageable(request)).getContent();
+    public List<PlayerView> getAllPlayers(PlayerRequest request) {
+        return queryCache.getPage("list", request, () -> {
+            for (PlayerQueryEngine engine : queryEngines) {
+                List<PlayerView> players = engine.findAll(request);
+                if (players != null) {
+                    return players;
+                }
+            }
+            return slowQueryLog.track("list", request,
+                    () -> readOnlyTransaction.execute(status -> {
+                        Pageable pageable = getPageable(request);
+                        return playerRepository.findViews(getSpecification(request), pageable.getSort(),
+                                pageable.getOffset(), pageable.getPageSize());
+                    }), List::size);
+        });
+    }
+
+    @Override
+    public PlayerPage getPlayersAfterCursor(PlayerRequest request) {
+        return queryCache.getPage("cursor", request, () -> slowQueryLog.track("cursor", request,
+                () -> readOnlyTransaction.execute(status -> findPageAfterCursor(getSpecification(request), request)),
+                page -> page.getPlayers().size()));
+    }
+
+    @Override
+    public PlayerPage getPage(PlayerRequest request) {
+        // транзакция открывается только при промахе кэша
+        return queryCache.getPage("page", request, () -> slowQueryLog.track("page", request,
+                () -> readOnlyTransaction.execute(status -> findPage(request)), page -> page.getPlayers().size()));
     }
 
     @Override
     public long count(PlayerRequest request) {
-        return playerRepository.count(getSpecification(request));
+        return queryCache.getCount(request, () -> {
+            for (PlayerQueryEngine engine : queryEngines) {
+                Long count = engine.count(request);
+                if (count != null) {
+                    return count;
+                }
+            }
+            return slowQueryLog.track("count", request,
+                    () -> readOnlyTransaction.execute(status -> playerRepository.count(getSpecification(request))),
+                    count -> count);
+        });
+    }
+
+    @Override
+    public void exportPlayers(PlayerRequest request, Consumer<PlayerView> consumer) {
+        Specification<Player> specification = getSpecification(request);
+        Sort sort = getKeysetSort(request.getOrder() == null ? PlayerOrder.ID : request.getOrder());
+        readOnlyTransaction.executeWithoutResult(status
+                -> playerRepository.forEachView(specification, sort, exportFetchSize, consumer));
     }
 
     @Override
     public Player createPlayer(PlayerRequest request) {
-        validatePlayerRequest(request);
-        Player player = conversionService.convert(request, Player.class);
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(toNewPlayer(request));
+        listeners.forEach(listener -> listener.playerSaved(saved));
+        return saved;
     }
 
     @Override
-    public Player getPlayerById(long id) {
+    public PlayerBatchResult createPlayers(List<PlayerRequest> requests) {
+        if (requests == null) {
+            throw new BadRequestException();
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BadRequestException("В одном запросе можно создать не больше " + maxBatchSize + " игроков");
+        }
+        PlayerBatchResult result = new PlayerBatchResult();
+        List<Player> batch = new ArrayList<>(Math.min(requests.size(), insertBatchSize));
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                batch.add(toNewPlayer(requests.get(i)));
+            } catch (BadRequestException e) {
+                result.addError(i, e.getMessage());
+                continue;
+            }
+            if (batch.size() == insertBatchSize) {
+                insertBatch(batch, result);
+                batch = new ArrayList<>(insertBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, result);
+        }
+        return result;
+    }
+
+    @Override
+    public PlayerView getPlayerById(long id) {
         validateId(id);
-        return playerRepository.findById(id).orElseThrow(() -> new NotFoundException(id));
+        PlayerView player = playerCache.get(id, key -> readOnlyTransaction.execute(status
+                -> playerRepository.findViewById(key).orElse(null)));
+        if (player == null) {
+            throw new NotFoundException(id);
+        }
+        return player;
     }
 
     @Override
     public void deletePlayer(long id) {
-        Player player = getPlayerById(id);
-        playerRepository.delete(player);
+        validateId(id);
+        int deleted = transaction.execute(status -> playerRepository.deleteAll(withId(id)));
+        if (deleted == 0) {
+            throw new NotFoundException(id);
+        }
+        listeners.forEach(listener -> listener.playerDeleted(id));
+    }
+
+    /**
+     * Не больше maxBulkEvents игроков удаляются по заблокированным id, и слушатели получают событие о каждом.
+     * Больше - одним DELETE по условию, а структуры в памяти перестраиваются в фоне
+     */
+    @Override
+    public int deletePlayers(PlayerRequest request) {
+        Specification<Player> specification = getFilterSpecification(request);
+        int[] deleted = new int[1];
+        List<Long> ids = transaction.execute(status -> {
+            List<Long> locked = playerRepository.lockIds(specification, maxBulkEvents + 1);
+            if (locked.size() > maxBulkEvents) {
+                deleted[0] = playerRepository.deleteAll(specification);
+                return null;
+            }
+            deleted[0] = locked.isEmpty() ? 0 : playerRepository.deleteAll(withIdIn(locked));
+            return locked;
+        });
+        if (ids == null) {
+            reloadInBackground();
+        } else {
+            ids.forEach(id -> listeners.forEach(listener -> listener.playerDeleted(id)));
+        }
+        return deleted[0];
+    }
+
+    /**
+     * Как и удаление: до maxBulkEvents игроков - события о каждом, больше - перестройка в фоне
+     */
+    @Override
+    public int setBanned(PlayerRequest request, boolean banned) {
+        Specification<Player> specification = getFilterSpecification(request);
+        Map<String, Object> changes = Collections.singletonMap("banned", banned);
+        int[] updated = new int[1];
+        List<Player> players = transaction.execute(status -> {
+            List<Long> locked = playerRepository.lockIds(specification, maxBulkEvents + 1);
+            if (locked.size() > maxBulkEvents) {
+                updated[0] = playerRepository.updateAll(specification, changes);
+                return null;
+            }
+            if (locked.isEmpty()) {
+                return Collections.<Player>emptyList();
+            }
+            updated[0] = playerRepository.updateAll(withIdIn(locked), changes);
+            return playerRepository.findAll(withIdIn(locked));
+        });
+        if (players == null) {
+            reloadInBackground();
+        } else {
+            players.forEach(player -> listeners.forEach(listener -> listener.playerSaved(player)));
+        }
+        return updated[0];
     }
 
     @Override
     public Player updatePlayer(long id, PlayerRequest request) {
-        Player player = getPlayerById(id);
+        validateId(id);
+        Map<String, Object> changes = getChanges(request);
+        // одно UPDATE по id; отсутствие игрока определяется по числу измененных строк
+        Player updated = transaction.execute(status -> {
+            if (!changes.isEmpty() && playerRepository.updateAll(withId(id), changes) == 0) {
+                throw new NotFoundException(id);
+            }
+            return playerRepository.findById(id).orElseThrow(() -> new NotFoundException(id));
+        });
+        // в ответе и кэшах - переданные значения, как при сохранении сущности (дата в БД без времени)
+        new BeanWrapperImpl(updated).setPropertyValues(changes);
+        listeners.forEach(listener -> listener.playerSaved(updated));
+        return updated;
+    }
+
+    /**
+     * Метод сбрасывает кэши сразу, чтобы ответы не расходились с базой, а индексы перестраивает в фоне
+     */
+    private void reloadInBackground() {
+        playerCache.playersReloaded();
+        queryCache.playersReloaded();
+        reloader.reload();
+    }
+
+    /**
+     * Метод проверяет переданные поля и собирает изменения для UPDATE.
+     * Уровень пересчитывается только при изменении опыта
+     *
+     * @return имя поля - новое значение
+     */
+    private Map<String, Object> getChanges(PlayerRequest request) {
+        Map<String, Object> changes = new LinkedHashMap<>();
         String name = request.getName();
         if (name != null) {
             validateName(name);
-            player.setName(name);
+            changes.put("name", name);
         }
         String title = request.getTitle();
         if (title != null) {
             validateTitle(title);
-            player.setTitle(title);
+            changes.put("title", title);
         }
         Race race = request.getRace();
         if (race != null) {
-            player.setRace(race);
+            changes.put("race", race);
         }
         Profession profession = request.getProfession();
         if (profession != null) {
-            player.setProfession(profession);
+            changes.put("profession", profession);
         }
         Long birthday = request.getBirthday();
         if (birthday != null) {
             validateBirthday(birthday);
-            player.setBirthday(new Date(birthday));
+            changes.put("birthday", new Date(birthday));
         }
         Boolean banned = request.getBanned();
         if (banned != null) {
-            player.setBanned(request.getBanned());
+            changes.put("banned", banned);
         }
         String experience = request.getExperience();
         if (experience != null) {
             validateExperience(experience);
-            player.setExperience(Integer.parseInt(request.getExperience()));
+            int exp = Integer.parseInt(experience);
+            int level = LevelEngine.level(exp);
+            changes.put("experience", exp);
+            changes.put("level", level);
+            changes.put("untilNextLevel", LevelEngine.untilNextLevel(level, exp));
         }
+        return changes;
+    }
+
+    private Player toNewPlayer(PlayerRequest request) {
+        validatePlayerRequest(request);
+        Player player = conversionService.convert(request, Player.class);
         setLevels(player);
-        return playerRepository.save(player);
+        return player;
+    }
+
+    private void insertBatch(List<Player> players, PlayerBatchResult result) {
+        transaction.executeWithoutResult(status -> playerJdbcRepository.insertAll(players));
+        for (Player player : players) {
+            result.addId(player.getId());
+            listeners.forEach(listener -> listener.playerSaved(player));
+        }
+    }
+
+    /**
+     * Метод строит условие для массовых операций; пустой фильтр затронул бы всех игроков
+     */
+    private Specification<Player> getFilterSpecification(PlayerRequest request) {
+        if (request.getName() == null && request.getTitle() == null
+                && request.getAfter() == null && request.getBefore() == null
+                && request.getMinExperience() == null && request.getMaxExperience() == null
+                && request.getMinLevel() == null && request.getMaxLevel() == null
+                && request.getRace() == null && request.getProfession() == null && request.getBanned() == null) {
+            throw new BadRequestException("Нужен хотя бы один фильтр");
+        }
+        return getSpecification(request);
     }
 
     private Specification<Player> getSpecification(PlayerRequest request) {
@@ -109,9 +368,11 @@ public class PlayerServiceImpl implements PlayerService {
                 -> criteriaBuilder.isTrue(criteriaBuilder.literal(Boolean.TRUE));
         if (request.getName() != null) {
             result = result.and(containPartOfValueString("name", request.getName()));
+            result = narrowByCandidates(result, "name", textSearch.findByName(request.getName()));
         }
         if (request.getTitle() != null) {
             result = result.and(containPartOfValueString("title", request.getTitle()));
+            result = narrowByCandidates(result, "title", textSearch.findByTitle(request.getTitle()));
         }
         if (request.getAfter() != null || request.getBefore() != null) {
             result = result.and(betweenDates("birthday", request.getAfter(), request.getBefore()));
@@ -139,6 +400,69 @@ banned: false
         return result;
     }
 
+    /**
+     * Метод добавляет к условию список id-кандидатов из индекса триграмм.
+     * LIKE остается в запросе, индекс только сужает выборку по первичному ключу.
+     * Кандидатов нет (null), если индекс выключен или не загружен
+     */
+    private Specification<Player> narrowByCandidates(Specification<Player> specification, String field,
+                                                     Set<Long> candidateIds) {
+        if (candidateIds == null || candidateIds.size() > maxCandidateIds) {
+            return specification;
+        }
+        slowQueryLog.candidates(field, candidateIds.size());
+        return specification.and(withIdIn(candidateIds));
+    }
+
+    private PlayerPage findPage(PlayerRequest request) {
+        Specification<Player> specification = getSpecification(request);
+        if (request.getCursor() != null) {
+            PlayerPage page = findPageAfterCursor(specification, request);
+            return request.isWithCount() ? page.withTotalCount(playerRepository.count(specification)) : page;
+        }
+        Pageable pageable = getPageable(request);
+        int pageSize = pageable.getPageSize();
+        List<PlayerView> players = playerRepository.findViews(specification, pageable.getSort(), pageable.getOffset(), pageSize + 1);
+        boolean hasNext = players.size() > pageSize;
+        if (hasNext) {
+            players = players.subList(0, pageSize);
+        }
+        PlayerPage page = new PlayerPage(players, hasNext, null, null);
+        if (!request.isWithCount()) {
+            return page;
+        }
+        // по неполной непустой странице общее количество известно без отдельного запроса
+        boolean countKnown = !hasNext && (!players.isEmpty() || pageable.getOffset() == 0);
+        return page.withTotalCount(countKnown
+                ? pageable.getOffset() + players.size()
+                : playerRepository.count(specification));
+    }
+
+    private PlayerPage findPageAfterCursor(Specification<Player> specification, PlayerRequest request) {
+        PlayerOrder order = request.getOrder() == null ? PlayerOrder.ID : request.getOrder();
+        String field = order == PlayerOrder.ID ? null : order.getFieldName();
+        String cursor = request.getCursor();
+        if (cursor != null && !cursor.isEmpty()) {
+            PlayerCursor after = PlayerCursor.decode(cursor, order);
+            specification = specification.and(afterKey(field, after.getValue(), after.getId()));
+        }
+        Sort sort = getKeysetSort(order);
+        int pageSize = request.getPageSize();
+        List<PlayerView> players = playerRepository.findViews(specification, sort, 0, pageSize + 1);
+        if (players.size() <= pageSize) {
+            return new PlayerPage(players, false, null, null);
+        }
+        players = players.subList(0, pageSize);
+        return new PlayerPage(players, true, PlayerCursor.encode(order, players.get(pageSize - 1)), null);
+    }
+
+    /**
+     * Сортировка по полю заказа с id в качестве второго ключа, чтобы порядок был строгим
+     */
+    private Sort getKeysetSort(PlayerOrder order) {
+        return order == PlayerOrder.ID ? Sort.by("id") : Sort.by(order.getFieldName()).and(Sort.by("id"));
+    }
+
     private Pageable getPageable(PlayerRequest request) {
         PlayerOrder order = request.getOrder();
         Sort sort = order == null ? Sort.unsorted() : Sort.by(order.getFieldName());
@@ -186,7 +510,7 @@ banned: false
         } catch (NumberFormatException e) {
             throw new BadRequestException("Параметр опыт (experience) должен быть числом");
         }
-        if (exp < 0 || exp > 10000000) {
+        if (exp < 0 || exp > LevelEngine.MAX_EXPERIENCE) {
             throw new BadRequestException("Опыт находится вне заданных пределов");
         }
     }
@@ -210,30 +534,9 @@ banned: false
         }
     }
 
-    /**
-     * Метод рассчитывает уровень игрока
-     *
-     * @param exp опыт игрока
-     * @return уровень игрока
-     */
-    private int calculateLevel(int exp) {
-        return (int) ((Math.sqrt(2500 + 200 * exp) - 50) / 100);
-    }
-
-    /**
-     * Метод рассчитывает опыт до следующего уровня
-     *
-     * @param level уровень игрока
-     * @param exp   опыт игрока
-     * @return опыт до следующего уровня
-     */
-    private Integer calculateUntilNextLevel(Integer level, Integer exp) {
-        return 50 * (level + 1) * (level + 2) - exp;
-    }
-
     private void setLevels(Player player) {
-        int level = calculateLevel(player.getExperience());
+        int level = LevelEngine.level(player.getExperience());
         player.setLevel(level);
-        player.setUntilNextLevel(calculateUntilNextLevel(level, player.getExperience()));
+        player.setUntilNextLevel(LevelEngine.untilNextLevel(level, player.getExperience()));
     }
 }
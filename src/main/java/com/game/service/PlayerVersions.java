@@ -0,0 +1,73 @@
+package com.game.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Последние известные версии недавно измененных игроков.
+ * Слушатели вызываются после коммита без общего порядка, и событие о старой версии строки может прийти
+ * позже события о новой; структуры в памяти сверяются с этим реестром и пропускают такие события.
+ * Удаление - последняя версия строки: id не переиспользуются.
+ * <p>
+ * Записи старше ttlMs удаляются: события приходят сразу после коммита, опоздание на ttlMs не ожидается
+ */
+@Component
+public class PlayerVersions {
+    private static final long DELETED = Long.MAX_VALUE;
+    private static final int PRUNE_EVERY = 1024;
+
+    private final long ttlNanos;
+    private final Map<Long, Entry> latest = new ConcurrentHashMap<>();
+    private final AtomicInteger sincePrune = new AtomicInteger();
+
+    @Autowired
+    public PlayerVersions(@Value("${players.versionTtlMs:60000}") long ttlMs) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    /**
+     * Метод запоминает версию игрока, если она новее известной
+     *
+     * @return true, если версия не старше последней известной и событие нужно применить
+     */
+    public boolean isLatest(long id, long version) {
+        long now = System.nanoTime();
+        Entry entry = latest.merge(id, new Entry(version, now),
+                (old, current) -> old.version >= current.version ? old : current);
+        pruneSometimes(now);
+        return entry.version == version;
+    }
+
+    /**
+     * Метод запоминает, что игрок удален: события о нем больше не применяются
+     */
+    public void deleted(long id) {
+        long now = System.nanoTime();
+        latest.put(id, new Entry(DELETED, now));
+        pruneSometimes(now);
+    }
+
+    private void pruneSometimes(long now) {
+        if (sincePrune.incrementAndGet() < PRUNE_EVERY) {
+            return;
+        }
+        sincePrune.set(0);
+        latest.values().removeIf(entry -> now - entry.createdAt > ttlNanos);
+    }
+
+    private static class Entry {
+        final long version;
+        final long createdAt;
+
+        Entry(long version, long createdAt) {
+            this.version = version;
+            this.createdAt = createdAt;
+        }
+    }
+}
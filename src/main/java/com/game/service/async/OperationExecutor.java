@@ -0,0 +1,135 @@
+package com.game.service.async;
+
+import com.game.model.exception.ServiceUnavailableException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Исполнитель одного класса операций с фиксированным числом потоков и ограниченной очередью.
+ * Если очередь заполнена, задача сразу завершается с ServiceUnavailableException.
+ * Задача, отмененная (например, по таймауту запроса) пока ждала в очереди, не выполняется
+ * <p>
+ * Для изменений есть submitBeforeTimeout: таймаут ограничивает только ожидание в очереди,
+ * а начатая операция доводится до конца, чтобы ответ всегда отражал, выполнилась ли она
+ */
+public class OperationExecutor {
+    private final String name;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * @param name      имя класса операций, префикс имен потоков
+     * @param threads   число потоков
+     * @param queueSize максимальное число ожидающих задач
+     * @param timeoutMs таймаут запроса для операций этого класса
+     */
+    public OperationExecutor(String name, int threads, int queueSize, long timeoutMs) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory);
+        CustomizableThreadFactory timerThreadFactory = new CustomizableThreadFactory(name + "-timer-");
+        timerThreadFactory.setDaemon(true);
+        this.timer = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Метод ставит операцию в очередь
+     *
+     * @return результат операции; при заполненной очереди - сразу завершенный с ServiceUnavailableException
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> action) {
+        return submit(action, new AtomicBoolean());
+    }
+
+    /**
+     * Метод ставит операцию в очередь с таймаутом на ожидание.
+     * Если операция не началась за timeoutMs, она не выполнится, а результат завершится ServiceUnavailableException;
+     * начатая операция по времени не ограничена
+     *
+     * @return результат операции; при заполненной очереди - сразу завершенный с ServiceUnavailableException
+     */
+    public <T> CompletableFuture<T> submitBeforeTimeout(Supplier<T> action) {
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<T> future = submit(action, claimed);
+        if (!future.isDone()) {
+            ScheduledFuture<?> expiry = timer.schedule(() -> {
+                if (claimed.compareAndSet(false, true)) {
+                    expired.increment();
+                    future.completeExceptionally(new ServiceUnavailableException("Операция " + name
+                            + " не началась за " + timeoutMs + " мс"));
+                }
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+            future.whenComplete((value, error) -> expiry.cancel(false));
+        }
+        return future;
+    }
+
+    /**
+     * @param claimed признак, что задачу уже забрали: поток исполнителя для запуска или таймер для отмены
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> action, AtomicBoolean claimed) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (!claimed.compareAndSet(false, true) || future.isDone()) {
+                    skipped.increment();
+                    return;
+                }
+                try {
+                    future.complete(action.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            future.completeExceptionally(new ServiceUnavailableException("Очередь операций " + name + " заполнена"));
+        }
+        return future;
+    }
+
+    /**
+     * @return загрузка потоков, глубина очереди и счетчики отказов
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threads", executor.getMaximumPoolSize());
+        result.put("active", executor.getActiveCount());
+        result.put("queued", executor.getQueue().size());
+        result.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        result.put("completed", executor.getCompletedTaskCount());
+        result.put("rejected", rejected.sum());
+        result.put("skipped", skipped.sum());
+        result.put("expired", expired.sum());
+        return result;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,60 @@
+package com.game.service.async;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Отдельные исполнители для асинхронных операций над игроками: поиск по id, выборки и изменения.
+ * Медленные выборки занимают только свои потоки и очередь и не задерживают быстрые операции
+ */
+@Component
+public class PlayerExecutors implements DisposableBean {
+    private final OperationExecutor lookup;
+    private final OperationExecutor listing;
+    private final OperationExecutor write;
+
+    public PlayerExecutors(@Value("${async.lookup.threads:8}") int lookupThreads,
+                           @Value("${async.lookup.queue:1000}") int lookupQueue,
+                           @Value("${async.lookup.timeoutMs:1000}") long lookupTimeoutMs,
+                           @Value("${async.listing.threads:4}") int listingThreads,
+                           @Value("${async.listing.queue:100}") int listingQueue,
+                           @Value("${async.listing.timeoutMs:10000}") long listingTimeoutMs,
+                           @Value("${async.write.threads:4}") int writeThreads,
+                           @Value("${async.write.queue:500}") int writeQueue,
+                           @Value("${async.write.timeoutMs:5000}") long writeTimeoutMs) {
+        this.lookup = new OperationExecutor("lookup", lookupThreads, lookupQueue, lookupTimeoutMs);
+        this.listing = new OperationExecutor("listing", listingThreads, listingQueue, listingTimeoutMs);
+        this.write = new OperationExecutor("write", writeThreads, writeQueue, writeTimeoutMs);
+    }
+
+    public OperationExecutor lookup() {
+        return lookup;
+    }
+
+    public OperationExecutor listing() {
+        return listing;
+    }
+
+    public OperationExecutor write() {
+        return write;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lookup", lookup.stats());
+        result.put("listing", listing.stats());
+        result.put("write", write.stats());
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        lookup.shutdown();
+        listing.shutdown();
+        write.shutdown();
+    }
+}
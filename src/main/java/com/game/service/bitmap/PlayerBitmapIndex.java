@@ -0,0 +1,194 @@
+package com.game.service.bitmap;
+
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
+import com.game.repository.PlayerRepository;
+import com.game.service.InMemoryPlayerIndex;
+import com.game.service.PlayerQueryEngine;
+import com.game.service.PlayerVersions;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сжатые битовые индексы id игроков по каждому значению race, profession и banned.
+ * Подсчет по любой комбинации этих фильтров - пересечение битмапов и их мощность, без обращения к базе.
+ * Id хранятся как беззнаковые 32-битные числа; если в таблице встретится id больше
+ * или NULL в race, profession или banned, индекс не готов до следующей перезагрузки.
+ * <p>
+ * Отвечает на часть запросов PlayerCounters, поэтому включается только вместо них (count.engine=bitmap):
+ * битмапы занимают меньше памяти, чем позиции каждого id в счетчиках, но не считают диапазоны уровней
+ */
+@Component
+@Order(50)
+public class PlayerBitmapIndex extends InMemoryPlayerIndex<PlayerBitmapIndex.Bitmaps> implements PlayerQueryEngine {
+    static final String ENGINE = "bitmap";
+    private static final long MAX_ID = 0xFFFFFFFFL;
+
+    @Autowired
+    public PlayerBitmapIndex(PlayerRepository playerRepository, PlayerVersions versions,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${count.engine:none}") String engine,
+                             @Value("${export.fetchSize:1000}") int fetchSize) {
+        super(playerRepository, versions, transactionManager, ENGINE.equals(engine), fetchSize);
+    }
+
+    /**
+     * Выборки страниц индекс не обслуживает
+     */
+    @Override
+    public List<PlayerView> findAll(PlayerRequest request) {
+        return null;
+    }
+
+    /**
+     * @return количество игроков или null, если в запросе есть фильтры кроме race, profession и banned
+     */
+    @Override
+    public Long count(PlayerRequest request) {
+        return supports(request)
+                ? tryRead(bitmaps -> bitmaps.count(request.getRace(), request.getProfession(), request.getBanned()))
+                : null;
+    }
+
+    @Override
+    protected Bitmaps newState(Bitmaps previous) {
+        return new Bitmaps();
+    }
+
+    @Override
+    protected boolean put(Bitmaps bitmaps, PlayerView player) {
+        if (player.getId() > MAX_ID || player.getRace() == null || player.getProfession() == null
+                || player.getBanned() == null) {
+            return false;
+        }
+        int id = (int) player.getId();
+        bitmaps.remove(id);
+        bitmaps.all.add(id);
+        bitmaps.byRace[player.getRace().ordinal()].add(id);
+        bitmaps.byProfession[player.getProfession().ordinal()].add(id);
+        if (player.getBanned()) {
+            bitmaps.banned.add(id);
+        }
+        return true;
+    }
+
+    @Override
+    protected void remove(Bitmaps bitmaps, long id) {
+        if (id <= MAX_ID) {
+            bitmaps.remove((int) id);
+        }
+    }
+
+    @Override
+    protected void loaded(Bitmaps bitmaps) {
+        bitmaps.optimize();
+    }
+
+    @Override
+    protected void stats(Bitmaps bitmaps, Map<String, Object> result) {
+        result.put("players", bitmaps.all.getLongCardinality());
+        result.put("sizeInBytes", bitmaps.sizeInBytes());
+    }
+
+    static boolean supports(PlayerRequest request) {
+        return request.getName() == null && request.getTitle() == null
+                && request.getAfter() == null && request.getBefore() == null
+                && request.getMinExperience() == null && request.getMaxExperience() == null
+                && request.getMinLevel() == null && request.getMaxLevel() == null;
+    }
+
+    static class Bitmaps {
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final RoaringBitmap banned = new RoaringBitmap();
+        private final RoaringBitmap[] byRace = new RoaringBitmap[Race.values().length];
+        private final RoaringBitmap[] byProfession = new RoaringBitmap[Profession.values().length];
+
+        Bitmaps() {
+            for (int i = 0; i < byRace.length; i++) {
+                byRace[i] = new RoaringBitmap();
+            }
+            for (int i = 0; i < byProfession.length; i++) {
+                byProfession[i] = new RoaringBitmap();
+            }
+        }
+
+        /**
+         * Пересечение начинается с самых маленьких битмапов, banned=false вычитается последним
+         */
+        long count(Race race, Profession profession, Boolean isBanned) {
+            List<RoaringBitmap> included = new ArrayList<>(3);
+            if (race != null) {
+                included.add(byRace[race.ordinal()]);
+            }
+            if (profession != null) {
+                included.add(byProfession[profession.ordinal()]);
+            }
+            if (Boolean.TRUE.equals(isBanned)) {
+                included.add(banned);
+            }
+            boolean excludeBanned = Boolean.FALSE.equals(isBanned);
+            if (included.isEmpty()) {
+                return all.getLongCardinality() - (excludeBanned ? banned.getLongCardinality() : 0);
+            }
+            included.sort((left, right) -> Long.compare(left.getLongCardinality(), right.getLongCardinality()));
+            RoaringBitmap result = included.get(0);
+            for (int i = 1; i < included.size() - 1; i++) {
+                result = RoaringBitmap.and(result, included.get(i));
+            }
+            if (excludeBanned) {
+                if (included.size() > 1) {
+                    result = RoaringBitmap.and(result, included.get(included.size() - 1));
+                }
+                return RoaringBitmap.andNotCardinality(result, banned);
+            }
+            return included.size() == 1
+                    ? result.getLongCardinality()
+                    : RoaringBitmap.andCardinality(result, included.get(included.size() - 1));
+        }
+
+        void remove(int id) {
+            if (!all.checkedRemove(id)) {
+                return;
+            }
+            banned.remove(id);
+            for (RoaringBitmap bitmap : byRace) {
+                bitmap.remove(id);
+            }
+            for (RoaringBitmap bitmap : byProfession) {
+                bitmap.remove(id);
+            }
+        }
+
+        void optimize() {
+            all.runOptimize();
+            banned.runOptimize();
+            for (RoaringBitmap bitmap : byRace) {
+                bitmap.runOptimize();
+            }
+            for (RoaringBitmap bitmap : byProfession) {
+                bitmap.runOptimize();
+            }
+        }
+
+        long sizeInBytes() {
+            long bytes = all.getLongSizeInBytes() + banned.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byRace) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byProfession) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        }
+    }
+}
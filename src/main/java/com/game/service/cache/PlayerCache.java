@@ -0,0 +1,82 @@
+package com.game.service.cache;
+
+import com.game.entity.Player;
+import com.game.model.PlayerView;
+import com.game.service.PlayerChangeListener;
+import com.game.service.PlayerVersions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Кэш игроков по id перед PlayerRepository.findById.
+ * Ограничен по размеру и времени жизни записи, при записи через PlayerService обновляется.
+ * Событие о версии старше известной (см. PlayerVersions) запись не заменяет
+ */
+@Component
+public class PlayerCache implements PlayerChangeListener {
+    private final Cache<Long, PlayerView> cache;
+    private final PlayerVersions versions;
+
+    public PlayerCache(PlayerVersions versions,
+                       @Value("${cache.player.maxSize:10000}") long maxSize,
+                       @Value("${cache.player.ttlSeconds:300}") long ttlSeconds) {
+        this.versions = versions;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Метод возвращает игрока из кэша, при промахе загружает его
+     *
+     * @param id     id игрока
+     * @param loader загрузка из базы, null - игрок не найден (не кэшируется)
+     * @return игрок или null
+     */
+    public PlayerView get(long id, Function<Long, PlayerView> loader) {
+        return cache.get(id, loader);
+    }
+
+    @Override
+    public void playerSaved(Player player) {
+        if (versions.isLatest(player.getId(), player.getVersion())) {
+            cache.put(player.getId(), PlayerView.of(player));
+        }
+    }
+
+    @Override
+    public void playerDeleted(long id) {
+        versions.deleted(id);
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void playersReloaded() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return счетчики попаданий, промахов и вытеснений
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("loadAvgMicros", TimeUnit.NANOSECONDS.toMicros((long) stats.averageLoadPenalty()));
+        return result;
+    }
+}
@@ -0,0 +1,117 @@
+package com.game.service.cache;
+
+import com.game.entity.Player;
+import com.game.model.PlayerRequest;
+import com.game.service.PlayerChangeListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов выборок и подсчетов по фильтрам.
+ * Ключ содержит поколение данных: любое изменение через PlayerService увеличивает поколение,
+ * и старые записи больше не читаются, а затем вытесняются по размеру или времени жизни.
+ * <p>
+ * Если заданы реплики, результаты, прочитанные в течение db.replica.stickyMs после изменения, не кэшируются:
+ * реплика могла еще не получить изменение, и устаревший результат сохранился бы под новым поколением
+ */
+@Component
+public class PlayerQueryCache implements PlayerChangeListener {
+    private final Cache<PlayerQueryKey, Object> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final boolean enabled;
+    private final long replicaLagMs;
+    private volatile long changedAt = Long.MIN_VALUE / 2;
+
+    /**
+     * @param maxSize    максимальное количество записей, 0 - кэш выключен
+     * @param ttlSeconds время жизни записи
+     * @param replicaUrls реплики; если их нет, чтение не отстает от записи
+     * @param stickyMs   сколько реплика может отставать от основной базы
+     */
+    public PlayerQueryCache(@Value("${cache.query.maxSize:5000}") long maxSize,
+                            @Value("${cache.query.ttlSeconds:60}") long ttlSeconds,
+                            @Value("${db.replica.urls:}") String replicaUrls,
+                            @Value("${db.replica.stickyMs:1000}") long stickyMs) {
+        this.enabled = maxSize > 0;
+        this.replicaLagMs = replicaUrls.trim().isEmpty() ? 0 : stickyMs;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Метод возвращает результат выборки страницы из кэша, при промахе выполняет ее
+     *
+     * @param kind    вид выборки (список, страница с количеством и т.д.)
+     * @param request параметры фильтрации
+     * @param loader  выполнение выборки
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getPage(String kind, PlayerRequest request, Supplier<T> loader) {
+        if (!enabled || settling()) {
+            return loader.get();
+        }
+        return (T) cache.get(PlayerQueryKey.forPage(kind, request, generation.get()), key -> loader.get());
+    }
+
+    /**
+     * Метод возвращает количество игроков по фильтру из кэша, при промахе считает его
+     */
+    public long getCount(PlayerRequest request, Supplier<Long> loader) {
+        if (!enabled || settling()) {
+            return loader.get();
+        }
+        return (Long) cache.get(PlayerQueryKey.forCount(request, generation.get()), key -> loader.get());
+    }
+
+    @Override
+    public void playerSaved(Player player) {
+        changed();
+    }
+
+    @Override
+    public void playerDeleted(long id) {
+        changed();
+    }
+
+    @Override
+    public void playersReloaded() {
+        changed();
+        cache.invalidateAll();
+    }
+
+    private void changed() {
+        changedAt = System.currentTimeMillis();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return true, если изменение могло еще не дойти до реплик
+     */
+    private boolean settling() {
+        return replicaLagMs > 0 && System.currentTimeMillis() - changedAt < replicaLagMs;
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("generation", generation.get());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
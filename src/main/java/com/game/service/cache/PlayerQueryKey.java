@@ -0,0 +1,59 @@
+package com.game.service.cache;
+
+import com.game.controller.PlayerOrder;
+import com.game.model.PlayerRequest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ключ кэша выборок: нормализованные поля фильтра из PlayerRequest, параметры страницы и поколение данных
+ */
+public final class PlayerQueryKey {
+    private final List<Object> values;
+
+    private PlayerQueryKey(List<Object> values) {
+        this.values = values;
+    }
+
+    /**
+     * Ключ для выборки страницы: учитываются фильтры, страница, сортировка и курсор
+     */
+    public static PlayerQueryKey forPage(String kind, PlayerRequest request, long generation) {
+        PlayerOrder order = request.getOrder() == null ? PlayerOrder.ID : request.getOrder();
+        return new PlayerQueryKey(Arrays.asList(kind, generation,
+                request.getName(), request.getTitle(), request.getRace(), request.getProfession(),
+                request.getAfter(), request.getBefore(),
+                request.getMinExperience(), request.getMaxExperience(),
+                request.getMinLevel(), request.getMaxLevel(), request.getBanned(),
+                request.getPageNumber(), request.getPageSize(), order, request.getCursor(), request.isWithCount()));
+    }
+
+    /**
+     * Ключ для подсчета: учитываются только фильтры, поэтому все страницы делят одно значение
+     */
+    public static PlayerQueryKey forCount(PlayerRequest request, long generation) {
+        return new PlayerQueryKey(Arrays.asList("count", generation,
+                request.getName(), request.getTitle(), request.getRace(), request.getProfession(),
+                request.getAfter(), request.getBefore(),
+                request.getMinExperience(), request.getMaxExperience(),
+                request.getMinLevel(), request.getMaxLevel(), request.getBanned()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return values.equals(((PlayerQueryKey) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerQueryKey" + values;
+    }
+}
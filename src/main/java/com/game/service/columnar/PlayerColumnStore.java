@@ -0,0 +1,85 @@
+package com.game.service.columnar;
+
+import com.game.entity.Player;
+import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
+import com.game.repository.PlayerRepository;
+import com.game.service.InMemoryPlayerIndex;
+import com.game.service.PlayerQueryEngine;
+import com.game.service.PlayerVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Колоночный индекс игроков в памяти: выборки и подсчеты по race, profession, banned,
+ * диапазонам дат, опыта и уровня без обращения к базе.
+ * Загружается целиком при старте и после массовых изменений, отдельные изменения применяются после коммита.
+ * Пока индекс перестраивается, выключен или в таблице есть строки с NULL, запросы идут в базу
+ */
+@Component
+@Order(100)
+public class PlayerColumnStore extends InMemoryPlayerIndex<PlayerColumns> implements PlayerQueryEngine {
+
+    @Autowired
+    public PlayerColumnStore(PlayerRepository playerRepository, PlayerVersions versions,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${columnar.enabled:false}") boolean enabled,
+                             @Value("${export.fetchSize:1000}") int fetchSize) {
+        super(playerRepository, versions, transactionManager, enabled, fetchSize);
+    }
+
+    @Override
+    public List<PlayerView> findAll(PlayerRequest request) {
+        return PlayerColumns.supports(request) ? tryRead(columns -> columns.findAll(request)) : null;
+    }
+
+    @Override
+    public Long count(PlayerRequest request) {
+        return PlayerColumns.supports(request) ? tryRead(columns -> columns.count(request)) : null;
+    }
+
+    @Override
+    protected PlayerColumns newState(PlayerColumns previous) {
+        return new PlayerColumns(previous == null ? 0 : previous.liveCount());
+    }
+
+    @Override
+    protected boolean put(PlayerColumns columns, PlayerView player) {
+        return columns.put(player);
+    }
+
+    @Override
+    protected void remove(PlayerColumns columns, long id) {
+        columns.remove(id);
+    }
+
+    /**
+     * В базе хранится только дата, фильтры по after/before сравнивают с началом дня
+     */
+    @Override
+    protected PlayerView toView(Player player) {
+        PlayerView view = PlayerView.of(player);
+        if (view.getBirthday() == null) {
+            return view;
+        }
+        long birthday = Instant.ofEpochMilli(view.getBirthday()).atZone(ZoneId.systemDefault())
+                .toLocalDate().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new PlayerView(view.getId(), view.getName(), view.getTitle(), view.getRace(), view.getProfession(),
+                new Date(birthday), view.getBanned(), view.getExperience(), view.getLevel(),
+                view.getUntilNextLevel(), view.getVersion());
+    }
+
+    @Override
+    protected void stats(PlayerColumns columns, Map<String, Object> result) {
+        result.put("players", columns.liveCount());
+    }
+}
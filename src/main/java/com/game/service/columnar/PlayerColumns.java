@@ -0,0 +1,250 @@
+package com.game.service.columnar;
+
+import com.game.controller.PlayerOrder;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Колоночная копия таблицы player: по массиву на поле, номер строки (слот) общий для всех массивов.
+ * Для race, profession и banned дополнительно хранятся битовые множества слотов,
+ * поэтому фильтр по ним - пересечение множеств, а диапазоны проверяются проходом по оставшимся слотам.
+ * <p>
+ * Новые игроки добавляются в конец, удаленные слоты только снимаются с live до перезагрузки.
+ * Пока id растут вместе со слотами, порядок слотов совпадает с порядком id. Класс не потокобезопасен
+ */
+class PlayerColumns {
+    private static final Race[] RACES = Race.values();
+    private static final Profession[] PROFESSIONS = Profession.values();
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private int size;
+    private long[] ids;
+    private String[] names;
+    private String[] titles;
+    private byte[] races;
+    private byte[] professions;
+    private long[] birthdays;
+    private int[] experience;
+    private int[] levels;
+    private int[] untilNextLevels;
+    private long[] versions;
+
+    private final BitSet live = new BitSet();
+    private final BitSet banned = new BitSet();
+    private final BitSet[] byRace = new BitSet[RACES.length];
+    private final BitSet[] byProfession = new BitSet[PROFESSIONS.length];
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private boolean idOrdered = true;
+
+    PlayerColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new long[capacity];
+        names = new String[capacity];
+        titles = new String[capacity];
+        races = new byte[capacity];
+        professions = new byte[capacity];
+        birthdays = new long[capacity];
+        experience = new int[capacity];
+        levels = new int[capacity];
+        untilNextLevels = new int[capacity];
+        versions = new long[capacity];
+        for (int i = 0; i < byRace.length; i++) {
+            byRace[i] = new BitSet();
+        }
+        for (int i = 0; i < byProfession.length; i++) {
+            byProfession[i] = new BitSet();
+        }
+    }
+
+    int liveCount() {
+        return live.cardinality();
+    }
+
+    /**
+     * @return false, если в строке есть NULL: колонки хранят только примитивы
+     */
+    boolean put(PlayerView player) {
+        if (player.getRace() == null || player.getProfession() == null || player.getBirthday() == null
+                || player.getBanned() == null || player.getExperience() == null || player.getLevel() == null
+                || player.getUntilNextLevel() == null) {
+            return false;
+        }
+        Integer existing = slots.get(player.getId());
+        int slot;
+        if (existing == null) {
+            if (size > 0 && player.getId() < ids[size - 1]) {
+                idOrdered = false;
+            }
+            slot = size++;
+            ensureCapacity(size);
+            slots.put(player.getId(), slot);
+            live.set(slot);
+        } else {
+            slot = existing;
+            byRace[races[slot]].clear(slot);
+            byProfession[professions[slot]].clear(slot);
+        }
+        ids[slot] = player.getId();
+        names[slot] = player.getName();
+        titles[slot] = player.getTitle();
+        races[slot] = (byte) player.getRace().ordinal();
+        professions[slot] = (byte) player.getProfession().ordinal();
+        birthdays[slot] = player.getBirthday();
+        experience[slot] = player.getExperience();
+        levels[slot] = player.getLevel();
+        untilNextLevels[slot] = player.getUntilNextLevel();
+        versions[slot] = player.getVersion();
+        byRace[races[slot]].set(slot);
+        byProfession[professions[slot]].set(slot);
+        banned.set(slot, player.getBanned());
+        return true;
+    }
+
+    void remove(long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        live.clear(slot);
+        banned.clear(slot);
+        byRace[races[slot]].clear(slot);
+        byProfession[professions[slot]].clear(slot);
+        names[slot] = null;
+        titles[slot] = null;
+    }
+
+    /**
+     * @return true, если колонки могут ответить на запрос (подстроки name и title не поддерживаются)
+     */
+    static boolean supports(PlayerRequest request) {
+        return request.getName() == null && request.getTitle() == null;
+    }
+
+    long count(PlayerRequest request) {
+        return select(request).cardinality();
+    }
+
+    /**
+     * @return страница игроков или null, если нужный порядок нельзя получить без базы
+     */
+    List<PlayerView> findAll(PlayerRequest request) {
+        PlayerOrder order = request.getOrder() == null ? PlayerOrder.ID : request.getOrder();
+        // порядок строк по name зависит от collation базы
+        if (!idOrdered || order == PlayerOrder.NAME) {
+            return null;
+        }
+        BitSet selected = select(request);
+        long offset = (long) request.getPageNumber() * request.getPageSize();
+        int limit = request.getPageSize();
+        if (order == PlayerOrder.ID) {
+            List<PlayerView> result = new ArrayList<>(limit);
+            long skipped = 0;
+            for (int slot = selected.nextSetBit(0); slot >= 0 && result.size() < limit; slot = selected.nextSetBit(slot + 1)) {
+                if (skipped++ >= offset) {
+                    result.add(view(slot));
+                }
+            }
+            return result;
+        }
+        // ключ сортировки в старших 32 битах, слот (он же порядок id) - в младших
+        long[] keys = new long[selected.cardinality()];
+        int count = 0;
+        for (int slot = selected.nextSetBit(0); slot >= 0; slot = selected.nextSetBit(slot + 1)) {
+            keys[count++] = ((long) sortValue(order, slot) << 32) | slot;
+        }
+        Arrays.sort(keys);
+        if (offset >= count) {
+            return Collections.emptyList();
+        }
+        int to = (int) Math.min(count, offset + limit);
+        List<PlayerView> result = new ArrayList<>(to - (int) offset);
+        for (int i = (int) offset; i < to; i++) {
+            result.add(view((int) keys[i]));
+        }
+        return result;
+    }
+
+    private BitSet select(PlayerRequest request) {
+        BitSet result = (BitSet) live.clone();
+        if (request.getRace() != null) {
+            result.and(byRace[request.getRace().ordinal()]);
+        }
+        if (request.getProfession() != null) {
+            result.and(byProfession[request.getProfession().ordinal()]);
+        }
+        if (request.getBanned() != null) {
+            if (request.getBanned()) {
+                result.and(banned);
+            } else {
+                result.andNot(banned);
+            }
+        }
+        long after = request.getAfter() == null ? Long.MIN_VALUE : request.getAfter();
+        long before = request.getBefore() == null ? Long.MAX_VALUE : request.getBefore();
+        int minExperience = request.getMinExperience() == null ? Integer.MIN_VALUE : request.getMinExperience();
+        int maxExperience = request.getMaxExperience() == null ? Integer.MAX_VALUE : request.getMaxExperience();
+        int minLevel = request.getMinLevel() == null ? Integer.MIN_VALUE : request.getMinLevel();
+        int maxLevel = request.getMaxLevel() == null ? Integer.MAX_VALUE : request.getMaxLevel();
+        boolean hasRanges = request.getAfter() != null || request.getBefore() != null
+                || request.getMinExperience() != null || request.getMaxExperience() != null
+                || request.getMinLevel() != null || request.getMaxLevel() != null;
+        if (hasRanges) {
+            for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                if (birthdays[slot] < after || birthdays[slot] > before
+                        || experience[slot] < minExperience || experience[slot] > maxExperience
+                        || levels[slot] < minLevel || levels[slot] > maxLevel) {
+                    result.clear(slot);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Значение поля сортировки как int; дата рождения - в минутах от эпохи (хватает на ±4000 лет)
+     */
+    private int sortValue(PlayerOrder order, int slot) {
+        switch (order) {
+            case EXPERIENCE:
+                return experience[slot];
+            case LEVEL:
+                return levels[slot];
+            case BIRTHDAY:
+                return (int) Math.floorDiv(birthdays[slot], MILLIS_PER_MINUTE);
+            default:
+                throw new IllegalArgumentException("Неподдерживаемая сортировка: " + order);
+        }
+    }
+
+    private PlayerView view(int slot) {
+        return new PlayerView(ids[slot], names[slot], titles[slot], RACES[races[slot]], PROFESSIONS[professions[slot]],
+                birthdays[slot], banned.get(slot), experience[slot], levels[slot], untilNextLevels[slot], versions[slot]);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        names = Arrays.copyOf(names, newCapacity);
+        titles = Arrays.copyOf(titles, newCapacity);
+        races = Arrays.copyOf(races, newCapacity);
+        professions = Arrays.copyOf(professions, newCapacity);
+        birthdays = Arrays.copyOf(birthdays, newCapacity);
+        experience = Arrays.copyOf(experience, newCapacity);
+        levels = Arrays.copyOf(levels, newCapacity);
+        untilNextLevels = Arrays.copyOf(untilNextLevels, newCapacity);
+        versions = Arrays.copyOf(versions, newCapacity);
+    }
+}
@@ -0,0 +1,160 @@
+package com.game.service.counters;
+
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
+import com.game.repository.PlayerRepository;
+import com.game.service.InMemoryPlayerIndex;
+import com.game.service.LevelEngine;
+import com.game.service.PlayerQueryEngine;
+import com.game.service.PlayerVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Материализованные счетчики игроков по ячейкам (race, profession, banned) с гистограммой по уровням в каждой ячейке.
+ * Подсчет по race, profession, banned, minLevel и maxLevel складывает не больше 112 ячеек
+ * и не зависит от размера таблицы. Для пересчета при изменениях хранится текущая ячейка и уровень каждого id.
+ * <p>
+ * Это кэш одного узла: счетчики строятся из таблицы и меняются после коммита вместе с остальными
+ * структурами в памяти. Изменения в обход PlayerService (другой узел, прямой SQL) видны только после перезагрузки,
+ * поэтому по умолчанию выключены; включаются при count.engine=counters вместо PlayerBitmapIndex, только для одного узла
+ */
+@Component
+@Order(10)
+public class PlayerCounters extends InMemoryPlayerIndex<PlayerCounters.Counters> implements PlayerQueryEngine {
+    static final String ENGINE = "counters";
+
+    private static final int RACES = Race.values().length;
+    private static final int PROFESSIONS = Profession.values().length;
+    private static final int CELLS = RACES * PROFESSIONS * 2;
+    private static final int LEVELS = LevelEngine.maxLevel() + 1;
+
+    @Autowired
+    public PlayerCounters(PlayerRepository playerRepository, PlayerVersions versions,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${count.engine:none}") String engine,
+                          @Value("${export.fetchSize:1000}") int fetchSize) {
+        super(playerRepository, versions, transactionManager, ENGINE.equals(engine), fetchSize);
+    }
+
+    /**
+     * Выборки страниц счетчики не обслуживают
+     */
+    @Override
+    public List<PlayerView> findAll(PlayerRequest request) {
+        return null;
+    }
+
+    /**
+     * @return количество игроков или null, если в запросе есть фильтры по name, title, датам или опыту
+     */
+    @Override
+    public Long count(PlayerRequest request) {
+        return supports(request) ? tryRead(counters -> counters.count(request)) : null;
+    }
+
+    @Override
+    protected Counters newState(Counters previous) {
+        return new Counters(previous == null ? 16 : previous.positions.size());
+    }
+
+    /**
+     * @return false, если в race, profession, banned или level NULL или уровень вне диапазона LevelEngine
+     */
+    @Override
+    protected boolean put(Counters counters, PlayerView player) {
+        Integer level = player.getLevel();
+        if (player.getRace() == null || player.getProfession() == null || player.getBanned() == null
+                || level == null || level < 0 || level >= LEVELS) {
+            return false;
+        }
+        counters.remove(player.getId());
+        int cell = cell(player.getRace().ordinal(), player.getProfession().ordinal(), player.getBanned());
+        int position = cell * LEVELS + level;
+        counters.positions.put(player.getId(), position);
+        counters.totals[cell]++;
+        counters.byLevel[position]++;
+        return true;
+    }
+
+    @Override
+    protected void remove(Counters counters, long id) {
+        counters.remove(id);
+    }
+
+    @Override
+    protected void stats(Counters counters, Map<String, Object> result) {
+        result.put("players", counters.positions.size());
+    }
+
+    static boolean supports(PlayerRequest request) {
+        return request.getName() == null && request.getTitle() == null
+                && request.getAfter() == null && request.getBefore() == null
+                && request.getMinExperience() == null && request.getMaxExperience() == null;
+    }
+
+    private static int cell(int race, int profession, boolean banned) {
+        return (race * PROFESSIONS + profession) * 2 + (banned ? 1 : 0);
+    }
+
+    static class Counters {
+        private final long[] totals = new long[CELLS];
+        private final long[] byLevel = new long[CELLS * LEVELS];
+        /**
+         * id - номер ячейки * LEVELS + уровень
+         */
+        private final Map<Long, Integer> positions;
+
+        Counters(int capacity) {
+            positions = new HashMap<>(capacity * 4 / 3 + 1);
+        }
+
+        long count(PlayerRequest request) {
+            int minLevel = request.getMinLevel() == null ? 0 : Math.max(request.getMinLevel(), 0);
+            int maxLevel = request.getMaxLevel() == null ? LEVELS - 1 : Math.min(request.getMaxLevel(), LEVELS - 1);
+            boolean allLevels = minLevel == 0 && maxLevel == LEVELS - 1;
+            long result = 0;
+            for (int race = 0; race < RACES; race++) {
+                if (request.getRace() != null && request.getRace().ordinal() != race) {
+                    continue;
+                }
+                for (int profession = 0; profession < PROFESSIONS; profession++) {
+                    if (request.getProfession() != null && request.getProfession().ordinal() != profession) {
+                        continue;
+                    }
+                    for (int banned = 0; banned < 2; banned++) {
+                        if (request.getBanned() != null && request.getBanned() != (banned == 1)) {
+                            continue;
+                        }
+                        int cell = cell(race, profession, banned == 1);
+                        if (allLevels) {
+                            result += totals[cell];
+                        } else {
+                            for (int level = minLevel; level <= maxLevel; level++) {
+                                result += byLevel[cell * LEVELS + level];
+                            }
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        void remove(long id) {
+            Integer position = positions.remove(id);
+            if (position != null) {
+                totals[position / LEVELS]--;
+                byLevel[position]--;
+            }
+        }
+    }
+}
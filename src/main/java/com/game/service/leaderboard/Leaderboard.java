@@ -0,0 +1,186 @@
+package com.game.service.leaderboard;
+
+import com.game.controller.LeaderboardScope;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.LeaderboardEntry;
+import com.game.model.PlayerView;
+import com.game.model.exception.BadRequestException;
+import com.game.model.exception.NotFoundException;
+import com.game.model.exception.ServiceUnavailableException;
+import com.game.repository.PlayerRepository;
+import com.game.service.InMemoryPlayerIndex;
+import com.game.service.PlayerVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Рейтинг игроков по опыту (при равном опыте выше меньший id): общий и отдельно по каждой расе и профессии.
+ * Уровень растет вместе с опытом, поэтому тот же порядок - рейтинг по уровню.
+ * Загружается при старте и обновляется при изменениях через PlayerService.
+ * Игроки с NULL в опыте, расе или профессии в рейтинг не попадают
+ */
+@Component
+public class Leaderboard extends InMemoryPlayerIndex<Leaderboard.Ranking> {
+    public static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    public Leaderboard(PlayerRepository playerRepository, PlayerVersions versions,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${leaderboard.enabled:true}") boolean enabled,
+                       @Value("${export.fetchSize:1000}") int fetchSize) {
+        super(playerRepository, versions, transactionManager, enabled, fetchSize);
+    }
+
+    /**
+     * @param race       рейтинг расы или null
+     * @param profession рейтинг профессии или null
+     * @param limit      количество игроков, от 1 до MAX_LIMIT
+     * @return первые limit игроков рейтинга
+     */
+    public List<LeaderboardEntry> top(Race race, Profession profession, int limit) {
+        if (race != null && profession != null) {
+            throw new BadRequestException("Можно указать только расу или только профессию");
+        }
+        validateLimit(limit);
+        return read(ranking -> {
+            checkReady();
+            RankTree tree = race != null ? ranking.byRace[race.ordinal()]
+                    : profession != null ? ranking.byProfession[profession.ordinal()] : ranking.global;
+            return ranking.entries(tree, 0, limit);
+        });
+    }
+
+    /**
+     * @return место игрока в рейтинге scope
+     */
+    public LeaderboardEntry rank(long id, LeaderboardScope scope) {
+        return read(ranking -> {
+            checkReady();
+            PlayerView player = ranking.getPlayer(id);
+            return new LeaderboardEntry(ranking.tree(player, scope).rank(player.getExperience(), id) + 1L, player);
+        });
+    }
+
+    /**
+     * @param count количество соседей выше и ниже игрока
+     * @return игроки рейтинга scope с мест от (место игрока - count) до (место игрока + count)
+     */
+    public List<LeaderboardEntry> around(long id, LeaderboardScope scope, int count) {
+        validateLimit(2 * count + 1);
+        return read(ranking -> {
+            checkReady();
+            PlayerView player = ranking.getPlayer(id);
+            RankTree tree = ranking.tree(player, scope);
+            int rank = tree.rank(player.getExperience(), id);
+            int from = Math.max(rank - count, 0);
+            return ranking.entries(tree, from, rank + count + 1 - from);
+        });
+    }
+
+    @Override
+    protected Ranking newState(Ranking previous) {
+        return new Ranking();
+    }
+
+    /**
+     * Игрок без опыта, расы или профессии убирается из рейтинга, остальные не затрагиваются
+     */
+    @Override
+    protected boolean put(Ranking ranking, PlayerView player) {
+        ranking.remove(player.getId());
+        if (player.getExperience() != null && player.getRace() != null && player.getProfession() != null) {
+            ranking.put(player);
+        }
+        return true;
+    }
+
+    @Override
+    protected void remove(Ranking ranking, long id) {
+        ranking.remove(id);
+    }
+
+    @Override
+    protected void stats(Ranking ranking, Map<String, Object> result) {
+        result.put("players", ranking.players.size());
+    }
+
+    private void checkReady() {
+        if (!isReady()) {
+            throw new ServiceUnavailableException("Рейтинг еще не загружен");
+        }
+    }
+
+    private static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Количество игроков должно быть от 1 до " + MAX_LIMIT);
+        }
+    }
+
+    static class Ranking {
+        private final RankTree global = new RankTree();
+        private final RankTree[] byRace = new RankTree[Race.values().length];
+        private final RankTree[] byProfession = new RankTree[Profession.values().length];
+        private final Map<Long, PlayerView> players = new HashMap<>();
+
+        Ranking() {
+            for (int i = 0; i < byRace.length; i++) {
+                byRace[i] = new RankTree();
+            }
+            for (int i = 0; i < byProfession.length; i++) {
+                byProfession[i] = new RankTree();
+            }
+        }
+
+        void put(PlayerView player) {
+            players.put(player.getId(), player);
+            global.insert(player.getExperience(), player.getId());
+            byRace[player.getRace().ordinal()].insert(player.getExperience(), player.getId());
+            byProfession[player.getProfession().ordinal()].insert(player.getExperience(), player.getId());
+        }
+
+        void remove(long id) {
+            PlayerView old = players.remove(id);
+            if (old == null) {
+                return;
+            }
+            global.remove(old.getExperience(), id);
+            byRace[old.getRace().ordinal()].remove(old.getExperience(), id);
+            byProfession[old.getProfession().ordinal()].remove(old.getExperience(), id);
+        }
+
+        List<LeaderboardEntry> entries(RankTree tree, int from, int limit) {
+            int to = Math.min(tree.size(), from + limit);
+            List<LeaderboardEntry> result = new ArrayList<>(Math.max(to - from, 0));
+            for (int i = from; i < to; i++) {
+                result.add(new LeaderboardEntry(i + 1L, players.get(tree.select(i))));
+            }
+            return result;
+        }
+
+        RankTree tree(PlayerView player, LeaderboardScope scope) {
+            if (scope == LeaderboardScope.RACE) {
+                return byRace[player.getRace().ordinal()];
+            }
+            if (scope == LeaderboardScope.PROFESSION) {
+                return byProfession[player.getProfession().ordinal()];
+            }
+            return global;
+        }
+
+        PlayerView getPlayer(long id) {
+            PlayerView player = players.get(id);
+            if (player == null) {
+                throw new NotFoundException(id);
+            }
+            return player;
+        }
+    }
+}
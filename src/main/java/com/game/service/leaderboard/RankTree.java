@@ -0,0 +1,158 @@
+package com.game.service.leaderboard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Дерево порядковой статистики (декартово дерево с размерами поддеревьев) по ключу
+ * (experience по убыванию, id по возрастанию). Вставка, удаление, позиция ключа и ключ на позиции - O(log n).
+ * Класс не потокобезопасен
+ */
+class RankTree {
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    private static final class Node {
+        final int experience;
+        final long id;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(int experience, long id, int priority) {
+            this.experience = experience;
+            this.id = id;
+            this.priority = priority;
+        }
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    void insert(int experience, long id) {
+        Node[] parts = split(root, experience, id);
+        root = merge(merge(parts[0], new Node(experience, id, random.nextInt())), parts[1]);
+    }
+
+    void remove(int experience, long id) {
+        root = remove(root, experience, id);
+    }
+
+    /**
+     * @return количество ключей строго выше переданного (позиция с нуля), если ключ есть в дереве, иначе -1
+     */
+    int rank(int experience, long id) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(experience, id, node);
+            if (cmp == 0) {
+                return rank + size(node.left);
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return id ключа на позиции index (с нуля)
+     */
+    long select(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.id;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException("Индекс вне рейтинга: " + index);
+    }
+
+    /**
+     * Разрезает дерево на ключи меньше (experience, id) и остальные
+     */
+    private static Node[] split(Node node, int experience, long id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(experience, id, node) > 0) {
+            Node[] parts = split(node.right, experience, id);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, experience, id);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node remove(Node node, int experience, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(experience, id, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, experience, id);
+        } else {
+            node.right = remove(node.right, experience, id);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Больший опыт идет раньше, при равном опыте - меньший id
+     */
+    private static int compare(int experience, long id, Node node) {
+        if (experience != node.experience) {
+            return experience > node.experience ? -1 : 1;
+        }
+        return Long.compare(id, node.id);
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,83 @@
+package com.game.service.search;
+
+import com.game.entity.Player;
+import com.game.repository.PlayerRepository;
+import com.game.service.PlayerChangeListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Поиск игроков по подстроке в name и title через индексы триграмм.
+ * Индексы загружаются из базы при старте и обновляются при изменениях через PlayerService.
+ * Изменения в обход этого экземпляра (другой узел, прямой SQL) индекс не видит, а кандидаты из него
+ * превращаются в жесткий фильтр id IN (...), поэтому по умолчанию индекс выключен (search.narrowByIndex)
+ */
+@Component
+public class PlayerTextSearch implements PlayerChangeListener, SmartInitializingSingleton {
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex titles = new TrigramIndex();
+    private final PlayerRepository playerRepository;
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public PlayerTextSearch(PlayerRepository playerRepository,
+                            @Value("${search.narrowByIndex:false}") boolean enabled) {
+        this.playerRepository = playerRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        playersReloaded();
+    }
+
+    /**
+     * @return id игроков, в имени которых есть подстрока (без учета регистра),
+     * или null, если индекс не может ответить
+     */
+    public Set<Long> findByName(String part) {
+        return ready ? names.search(part) : null;
+    }
+
+    /**
+     * @return id игроков, в титуле которых есть подстрока (без учета регистра),
+     * или null, если индекс не может ответить
+     */
+    public Set<Long> findByTitle(String part) {
+        return ready ? titles.search(part) : null;
+    }
+
+    @Override
+    public void playerSaved(Player player) {
+        names.put(player.getId(), player.getName());
+        titles.put(player.getId(), player.getTitle());
+    }
+
+    @Override
+    public void playerDeleted(long id) {
+        names.remove(id);
+        titles.remove(id);
+    }
+
+    @Override
+    public synchronized void playersReloaded() {
+        if (!enabled) {
+            return;
+        }
+        ready = false;
+        names.clear();
+        titles.clear();
+        for (Object[] row : playerRepository.findAllNamesAndTitles()) {
+            long id = (Long) row[0];
+            names.put(id, (String) row[1]);
+            titles.put(id, (String) row[2]);
+        }
+        ready = true;
+    }
+}
@@ -0,0 +1,153 @@
+package com.game.service.search;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Индекс триграмм для поиска по подстроке.
+ * Для каждой триграммы хранится сжатое множество id, в тексте которых она встречается.
+ * Текст приводится к нижнему регистру и очищается от диакритики (ё - е, й - и), поэтому результат поиска -
+ * надмножество строк, подходящих под LIKE '%value%' и в регистрозависимом сравнении, и в utf8_general_ci
+ */
+public class TrigramIndex {
+    private static final int GRAM = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final Map<Long, Roaring64Bitmap> postings = new HashMap<>();
+    private final Map<Long, String> texts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Метод добавляет или заменяет текст для id
+     *
+     * @param id   id записи
+     * @param text текст, null удаляет запись из индекса
+     */
+    public void put(long id, String text) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (text == null) {
+                return;
+            }
+            String normalized = normalize(text);
+            texts.put(id, normalized);
+            for (long gram : trigrams(normalized)) {
+                postings.computeIfAbsent(gram, key -> new Roaring64Bitmap()).addLong(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            texts.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Метод ищет записи, текст которых содержит подстроку (без учета регистра)
+     *
+     * @param part подстрока
+     * @return множество id или null, если подстрока короче триграммы и индекс не может помочь
+     */
+    public Set<Long> search(String part) {
+        String normalized = normalize(part);
+        if (normalized.length() < GRAM) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<Roaring64Bitmap> lists = new ArrayList<>();
+            for (long gram : trigrams(normalized)) {
+                Roaring64Bitmap ids = postings.get(gram);
+                if (ids == null) {
+                    return Collections.emptySet();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+            Roaring64Bitmap candidates = lists.get(0).clone();
+            for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+                candidates.and(lists.get(i));
+            }
+            Set<Long> result = new HashSet<>();
+            candidates.forEach(id -> {
+                if (texts.get(id).contains(normalized)) {
+                    result.add(id);
+                }
+            });
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long id) {
+        String old = texts.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (long gram : trigrams(old)) {
+            Roaring64Bitmap ids = postings.get(gram);
+            if (ids != null) {
+                ids.removeLong(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Приведение мягче любого из сравнений в базе: лишние кандидаты отсеет LIKE, а пропущенных быть не должно
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("");
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+-- Планы запросов, которые строит PlayerServiceImpl (getAllPlayers и count) для типичных фильтров.
+-- Перед каждым запросом указан индекс, который должен использоваться.
+-- MySQL (после миграций db/migration): mysql rpg < player_queries.sql, колонка key.
+-- H2: проверяется тестом PlayerIndexExplainTest на схеме из test.sql.
+
+-- expect: player_race_profession_banned_idx
+EXPLAIN SELECT COUNT(player0_.id) FROM player player0_
+WHERE player0_.banned = TRUE AND player0_.profession = 'CLERIC' AND player0_.race = 'DWARF';
+
+-- expect: player_race_profession_banned_idx
+EXPLAIN SELECT player0_.* FROM player player0_
+WHERE player0_.profession = 'WARRIOR' AND player0_.race = 'HUMAN'
+  AND player0_.birthday BETWEEN '2003-01-01' AND '2006-01-01'
+ORDER BY player0_.id ASC LIMIT 3;
+
+-- expect: player_profession_banned_idx
+EXPLAIN SELECT COUNT(player0_.id) FROM player player0_
+WHERE player0_.profession = 'NAZGUL' AND player0_.banned = FALSE;
+
+-- expect: player_banned_level_idx
+EXPLAIN SELECT COUNT(player0_.id) FROM player player0_
+WHERE player0_.banned = FALSE AND player0_.level BETWEEN 10 AND 30;
+
+-- expect: player_banned_level_idx
+EXPLAIN SELECT player0_.* FROM player player0_
+WHERE player0_.banned = FALSE AND player0_.level <= 20
+ORDER BY player0_.id ASC LIMIT 3;
+
+-- expect: player_level_idx
+EXPLAIN SELECT COUNT(player0_.id) FROM player player0_
+WHERE player0_.level >= 42 AND player0_.experience >= 94000;
+
+-- expect: player_level_idx
+EXPLAIN SELECT player0_.* FROM player player0_
+ORDER BY player0_.level ASC LIMIT 3;
+
+-- expect: player_experience_idx
+EXPLAIN SELECT player0_.* FROM player player0_
+WHERE player0_.experience BETWEEN 30000 AND 100000
+ORDER BY player0_.experience ASC LIMIT 3;
+
+-- expect: player_birthday_idx
+EXPLAIN SELECT COUNT(player0_.id) FROM player player0_
+WHERE player0_.birthday >= '2005-01-01';
+
+-- expect: player_name_idx
+EXPLAIN SELECT player0_.* FROM player player0_
+ORDER BY player0_.name ASC LIMIT 3;
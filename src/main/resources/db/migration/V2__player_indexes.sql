@@ -0,0 +1,10 @@
+-- Индексы под фильтры PlayerSpecifications и сортировки PlayerOrder.
+-- Составные индексы по race/profession/banned заканчиваются level, поэтому count
+-- с фильтрами по этим полям и диапазону уровня читает только индекс (InnoDB хранит id в каждом индексе).
+CREATE INDEX player_race_profession_banned_idx ON player (race, profession, banned, level);
+CREATE INDEX player_profession_banned_idx ON player (profession, banned, level);
+CREATE INDEX player_banned_level_idx ON player (banned, level);
+CREATE INDEX player_level_idx ON player (level, experience);
+CREATE INDEX player_experience_idx ON player (experience);
+CREATE INDEX player_birthday_idx ON player (birthday);
+CREATE INDEX player_name_idx ON player (name);
@@ -0,0 +1,11 @@
+-- Точки продолжения фоновых задач: последний обработанный id и количество обработанных строк.
+-- Строка удаляется, когда задача дошла до конца таблицы.
+CREATE TABLE IF NOT EXISTS job_checkpoint
+(
+    name      VARCHAR(50) NOT NULL,
+    lastId    BIGINT(20)  NOT NULL,
+    processed BIGINT(20)  NOT NULL,
+    PRIMARY KEY (name)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARACTER SET = utf8;
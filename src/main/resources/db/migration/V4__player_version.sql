@@ -0,0 +1,4 @@
+-- Версия строки: растет при каждом изменении игрока. Слушатели изменений вызываются после коммита
+-- без общего порядка, и по версии структуры в памяти отбрасывают событие, пришедшее позже более нового.
+ALTER TABLE player
+    ADD COLUMN version BIGINT(20) NOT NULL DEFAULT 0;
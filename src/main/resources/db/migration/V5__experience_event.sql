@@ -0,0 +1,12 @@
+-- Принятые, но еще не записанные в player начисления опыта. Строка удаляется в той же транзакции,
+-- в которой начисление записано в player.
+CREATE TABLE IF NOT EXISTS experience_event
+(
+    id       BIGINT(20) NOT NULL AUTO_INCREMENT,
+    playerId BIGINT(20) NOT NULL,
+    delta    BIGINT(20) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX experience_event_player_idx (playerId)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARACTER SET = utf8;
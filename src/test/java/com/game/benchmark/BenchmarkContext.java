@@ -0,0 +1,54 @@
+package com.game.benchmark;
+
+import com.game.config.AppConfig;
+import com.game.config.WebConfig;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.PlayerRequest;
+import com.game.service.PlayerService;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Контекст приложения для бенчмарков: профиль dev (H2 из test.sql) и дополнительные сгенерированные игроки
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static AnnotationConfigWebApplicationContext start(Map<String, Object> properties) {
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().setActiveProfiles("dev");
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(AppConfig.class, WebConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    static void seed(PlayerService playerService, int count) {
+        Random random = new Random(42);
+        Race[] races = Race.values();
+        Profession[] professions = Profession.values();
+        List<PlayerRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PlayerRequest request = new PlayerRequest();
+            request.setName("Игрок" + i);
+            request.setTitle("Титул " + random.nextInt(1000));
+            request.setRace(races[random.nextInt(races.length)]);
+            request.setProfession(professions[random.nextInt(professions.length)]);
+            request.setBirthday(946684800000L + (long) random.nextInt(3650) * 86400000L);
+            request.setBanned(random.nextInt(10) == 0);
+            request.setExperience(String.valueOf(random.nextInt(10000001)));
+            requests.add(request);
+        }
+        playerService.createPlayers(requests);
+    }
+}
@@ -0,0 +1,60 @@
+package com.game.benchmark;
+
+import com.game.service.LevelEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Расчет уровня и опыта до следующего уровня: исходная формула через Math.sqrt (повторена здесь как эталон)
+ * и публичный API LevelEngine
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+    private static final int SIZE = 1024;
+
+    private final int[] experience = new int[SIZE];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            experience[i] = random.nextInt(10000001);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void formula(Blackhole blackhole) {
+        for (int exp : experience) {
+            Integer level = (int) ((Math.sqrt(2500 + 200 * exp) - 50) / 100);
+            blackhole.consume(50 * (level + 1) * (level + 2) - exp);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void levelEngine(Blackhole blackhole) {
+        for (int exp : experience) {
+            int level = LevelEngine.level(exp);
+            blackhole.consume(LevelEngine.untilNextLevel(level, exp));
+        }
+    }
+}
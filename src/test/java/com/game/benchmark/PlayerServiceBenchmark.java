@@ -0,0 +1,111 @@
+package com.game.benchmark;
+
+import com.game.controller.PlayerOrder;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.PlayerRequest;
+import com.game.model.PlayerView;
+import com.game.service.PlayerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getAllPlayers и count на H2 с разными наборами фильтров из getSpecification.
+ * Кэш выборок отключен, чтобы измерялся сам запрос; engine выбирает, кто отвечает раньше базы
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerServiceBenchmark {
+
+    @Param({"10000"})
+    public int players;
+
+    @Param({"none", "raceProfessionBanned", "bannedLevel", "name", "experienceBirthday", "orderLevel"})
+    public String filter;
+
+    @Param({"jpa", "bitmap", "counters"})
+    public String engine;
+
+    private AnnotationConfigWebApplicationContext context;
+    private PlayerService playerService;
+    private PlayerRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("cache.query.maxSize", "0");
+        properties.put("search.narrowByIndex", "true");
+        properties.put("count.engine", engine.equals("jpa") ? "none" : engine);
+        context = BenchmarkContext.start(properties);
+        playerService = context.getBean(PlayerService.class);
+        BenchmarkContext.seed(playerService, players);
+        request = createRequest(filter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PlayerView> getAllPlayers() {
+        return playerService.getAllPlayers(request);
+    }
+
+    @Benchmark
+    public long count() {
+        return playerService.count(request);
+    }
+
+    private static PlayerRequest createRequest(String filter) {
+        PlayerRequest request = new PlayerRequest();
+        request.setPageSize(20);
+        switch (filter) {
+            case "raceProfessionBanned":
+                request.setRace(Race.ORC);
+                request.setProfession(Profession.WARRIOR);
+                request.setBanned(false);
+                break;
+            case "bannedLevel":
+                request.setBanned(false);
+                request.setMinLevel(100);
+                request.setMaxLevel(200);
+                break;
+            case "name":
+                request.setName("рок12");
+                break;
+            case "experienceBirthday":
+                request.setMinExperience(1000000);
+                request.setMaxExperience(3000000);
+                request.setAfter(1104537600000L);
+                break;
+            case "orderLevel":
+                request.setOrder(PlayerOrder.LEVEL);
+                request.setPageNumber(50);
+                break;
+            default:
+        }
+        return request;
+    }
+}
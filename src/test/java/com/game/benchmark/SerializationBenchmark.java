@@ -0,0 +1,87 @@
+package com.game.benchmark;
+
+import com.game.config.WebConfig;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.metrics.RequestMetrics;
+import com.game.model.PlayerView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация списка игроков (сущностей и PlayerView) тем же конвертером, который WebConfig регистрирует для REST-ответов
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"3", "100", "1000"})
+    public int size;
+
+    private MappingJackson2HttpMessageConverter converter;
+    private List<Player> players;
+    private List<PlayerView> views;
+
+    @Setup
+    public void setup() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new WebConfig(new RequestMetrics(), 1, 0, 0).configureMessageConverters(converters);
+        converter = (MappingJackson2HttpMessageConverter) converters.get(0);
+
+        players = new ArrayList<>(size);
+        views = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Player player = new Player();
+            player.setId((long) i + 1);
+            player.setName("Игрок" + i);
+            player.setTitle("Титул игрока " + i);
+            player.setRace(Race.values()[i % Race.values().length]);
+            player.setProfession(Profession.values()[i % Profession.values().length]);
+            player.setBirthday(new Date(946684800000L + i * 86400000L));
+            player.setBanned(i % 10 == 0);
+            player.setExperience(i * 1000);
+            player.setLevel(i % 100);
+            player.setUntilNextLevel(i);
+            players.add(player);
+            views.add(PlayerView.of(player));
+        }
+    }
+
+    @Benchmark
+    public int writeList() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(players, MediaType.APPLICATION_JSON, message);
+        return message.getBodyAsBytes().length;
+    }
+
+    @Benchmark
+    public int writeViewList() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(views, MediaType.APPLICATION_JSON, message);
+        return message.getBodyAsBytes().length;
+    }
+}
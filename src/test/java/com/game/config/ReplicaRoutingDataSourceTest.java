@@ -0,0 +1,212 @@
+package com.game.config;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+public class ReplicaRoutingDataSourceTest {
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica1;
+    private EmbeddedDatabase replica2;
+    private SwitchableDataSource switchable1;
+    private SwitchableDataSource switchable2;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate jpaWriteTransaction;
+    private TransactionTemplate jpaReadTransaction;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+
+    @Before
+    public void setup() {
+        primary = database("primary");
+        replica1 = database("replica1");
+        replica2 = database("replica2");
+        switchable1 = new SwitchableDataSource(replica1);
+        switchable2 = new SwitchableDataSource(replica2);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, Arrays.asList(switchable1, switchable2), 100, 100));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+
+        // как в AppConfig: JPA поверх того же источника, без обращения к базе при старте
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.game.entity");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        entityManagerFactory.setJpaProperties(properties);
+        entityManagerFactory.afterPropertiesSet();
+        JpaTransactionManager jpaTransactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+        jpaWriteTransaction = new TransactionTemplate(jpaTransactionManager);
+        jpaReadTransaction = new TransactionTemplate(jpaTransactionManager);
+        jpaReadTransaction.setReadOnly(true);
+    }
+
+    @After
+    public void tearDown() {
+        entityManagerFactory.destroy();
+        primary.shutdown();
+        replica1.shutdown();
+        replica2.shutdown();
+    }
+
+    @Test
+    public void writesAndQueriesOutsideTransactionGoToPrimary() {
+        assertEquals("primary", writeTransaction.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    public void readOnlyTransactionsAreSpreadOverReplicas() {
+        String first = readTransaction.execute(status -> node());
+        String second = readTransaction.execute(status -> node());
+        String third = readTransaction.execute(status -> node());
+
+        assertEquals(first.equals("replica1") ? "replica2" : "replica1", second);
+        assertEquals(first, third);
+    }
+
+    @Test
+    public void failedReplicaIsSkippedUntilRetry() throws InterruptedException {
+        switchable1.down = true;
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica2", readTransaction.execute(status -> node()));
+        }
+
+        switchable2.down = true;
+        assertEquals("primary", readTransaction.execute(status -> node()));
+
+        switchable1.down = false;
+        switchable2.down = false;
+        Thread.sleep(150);
+        String first = readTransaction.execute(status -> node());
+        String second = readTransaction.execute(status -> node());
+        assertEquals(first.equals("replica1") ? "replica2" : "replica1", second);
+    }
+
+    @Test
+    public void readsGoToPrimaryWhileAndShortlyAfterWriting() throws InterruptedException {
+        writeTransaction.execute(status -> {
+            jdbcTemplate.update("UPDATE node SET name = name");
+            assertEquals("primary", readTransaction.execute(readStatus -> node()));
+            return null;
+        });
+        assertEquals("primary", readTransaction.execute(status -> node()));
+
+        Thread.sleep(150);
+        assertEquals(true, readTransaction.execute(status -> node()).startsWith("replica"));
+    }
+
+    @Test
+    public void writesInOtherThreadsDoNotPinReads() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch checked = new CountDownLatch(1);
+        Thread writer = new Thread(() -> writeTransaction.execute(status -> {
+            jdbcTemplate.update("UPDATE node SET name = name");
+            written.countDown();
+            await(checked);
+            return null;
+        }));
+        writer.start();
+        await(written);
+        try {
+            assertEquals(true, readTransaction.execute(status -> node()).startsWith("replica"));
+        } finally {
+            checked.countDown();
+            writer.join();
+        }
+        assertEquals(true, readTransaction.execute(status -> node()).startsWith("replica"));
+    }
+
+    @Test
+    public void jpaReadOnlyTransactionsGoToReplicas() {
+        String first = jpaReadTransaction.execute(status -> node());
+        String second = jpaReadTransaction.execute(status -> node());
+
+        assertEquals(true, first.startsWith("replica"));
+        assertEquals(first.equals("replica1") ? "replica2" : "replica1", second);
+        assertEquals("primary", jpaWriteTransaction.execute(status -> node()));
+    }
+
+    @Test
+    public void jpaReadsGoToPrimaryOnlyForTheWriter() throws Exception {
+        jpaWriteTransaction.execute(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+        assertEquals("primary", jpaReadTransaction.execute(status -> node()));
+
+        String[] otherThread = new String[1];
+        Thread reader = new Thread(() -> otherThread[0] = jpaReadTransaction.execute(status -> node()));
+        reader.start();
+        reader.join();
+        assertEquals(true, otherThread[0].startsWith("replica"));
+
+        Thread.sleep(150);
+        assertEquals(true, jpaReadTransaction.execute(status -> node()).startsWith("replica"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(H2)
+                .build();
+        JdbcTemplate template = new JdbcTemplate(database);
+        template.execute("CREATE TABLE node (name VARCHAR(20))");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return database;
+    }
+
+    private static class SwitchableDataSource extends DelegatingDataSource {
+        volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AsyncRpgControllerTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void getPlayerByIdAsyncTest() throws Exception {
+        String contentAsString = perform(get("/rest/async/players/7"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("Асинхронный GET /rest/async/players/{id} должен вернуть того же игрока, что и синхронный.",
+                testsHelper.getPlayerInfosById(7), mapper.readValue(contentAsString, PlayerInfoTest.class));
+    }
+
+    //test2
+    @Test
+    public void getPlayersAsyncTest() throws Exception {
+        String contentAsString = perform(get("/rest/async/players?race=ELF&pageSize=100"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<PlayerInfoTest> actual = mapper.readValue(contentAsString, new TypeReference<List<PlayerInfoTest>>() {
+        });
+
+        assertEquals("Асинхронный GET /rest/async/players должен учитывать фильтры.",
+                testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()), actual);
+    }
+
+    //test3
+    @Test
+    public void asyncErrorsKeepStatusTest() throws Exception {
+        perform(get("/rest/async/players/415"))
+                .andExpect(status().isNotFound());
+        perform(delete("/rest/async/players/0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test4
+    @Test
+    public void getPlayersByCursorAsyncTest() throws Exception {
+        MockHttpServletResponse first = perform(get("/rest/async/players?cursor=&order=LEVEL&pageSize=2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        String cursor = first.getHeader(RpgController.NEXT_CURSOR_HEADER);
+        assertNotNull("Асинхронная выборка по курсору должна вернуть курсор следующей страницы.", cursor);
+
+        MockHttpServletResponse sync = mockMvc.perform(get("/rest/players?cursor=&order=LEVEL&pageSize=2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertEquals("Асинхронная выборка по курсору должна совпадать с синхронной.",
+                sync.getContentAsString(), first.getContentAsString());
+        assertEquals("Курсоры асинхронной и синхронной выборок должны совпадать.",
+                sync.getHeader(RpgController.NEXT_CURSOR_HEADER), cursor);
+
+        List<PlayerInfoTest> next = mapper.readValue(perform(get("/rest/async/players?order=LEVEL&pageSize=2&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), new TypeReference<List<PlayerInfoTest>>() {
+        });
+        assertEquals("Следующая страница по курсору должна содержать pageSize игроков.", 2, next.size());
+    }
+
+    private ResultActions perform(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // у изменений нет таймаута ответа, поэтому время ожидания задается явно
+        result.getAsyncResult(5000);
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
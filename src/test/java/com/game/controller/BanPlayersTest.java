@@ -0,0 +1,81 @@
+package com.game.controller;
+
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.service.leaderboard.Leaderboard;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BanPlayersTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+
+    //test1
+    @Test
+    public void banPlayersWithoutFiltersTest() throws Exception {
+        mockMvc.perform(post("/rest/players/ban"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test2
+    @Test
+    public void banPlayersByFilterTest() throws Exception {
+        List<PlayerInfoTest> filtered = testsHelper.getPlayerInfosByMaxLevel(20,
+                testsHelper.getPlayerInfosByProfession(Profession.NAZGUL, testsHelper.getAllPlayers()));
+        List<PlayerInfoTest> notBanned = testsHelper.getPlayerInfosByBaned(false, filtered);
+
+        String banned = mockMvc.perform(post("/rest/players/ban?profession=NAZGUL&maxLevel=20&banned=false"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Возвращается не правильное количество забаненных игроков.", String.valueOf(notBanned.size()), banned);
+
+        assertEquals("После массового бана все игроки по фильтру должны быть забанены.",
+                String.valueOf(filtered.size()), count("/rest/players/count?profession=NAZGUL&maxLevel=20&banned=true"));
+    }
+
+    //test3
+    @Test
+    public void unbanPlayersByFilterTest() throws Exception {
+        List<PlayerInfoTest> banned = testsHelper.getPlayerInfosByBaned(true, testsHelper.getAllPlayers());
+
+        String unbanned = mockMvc.perform(post("/rest/players/unban?banned=true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Возвращается не правильное количество разбаненных игроков.", String.valueOf(banned.size()), unbanned);
+
+        assertEquals("После массового разбана не должно остаться забаненных игроков.",
+                "0", count("/rest/players/count?banned=true"));
+    }
+
+    //test4
+    @Test
+    public void banIsVisibleThroughCacheTest() throws Exception {
+        PlayerInfoTest player = testsHelper.getPlayerInfosByBaned(false, testsHelper.getAllPlayers()).get(0);
+        mockMvc.perform(get("/rest/players/" + player.id))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/rest/players/ban?name=" + player.name))
+                .andExpect(status().isOk());
+
+        assertTrue("Бан нескольких игроков не должен перестраивать рейтинг.",
+                context.getBean(Leaderboard.class).isReady());
+        String content = mockMvc.perform(get("/rest/players/" + player.id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("После бана из кэша должен возвращаться забаненный игрок.", content.contains("\"banned\":true"));
+    }
+
+    private String count(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.game.controller;
+
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.PlayerRequest;
+import com.game.service.bitmap.PlayerBitmapIndex;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "count.engine=bitmap")
+public class BitmapIndexTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+
+    //test1
+    @Test
+    public void countsForAllFilterCombinationsTest() {
+        PlayerBitmapIndex index = context.getBean(PlayerBitmapIndex.class);
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+        Boolean[] bannedValues = {null, true, false};
+        for (Race race : withNull(Race.values())) {
+            for (Profession profession : withNull(Profession.values())) {
+                for (Boolean banned : bannedValues) {
+                    List<PlayerInfoTest> expected = all;
+                    if (race != null) {
+                        expected = testsHelper.getPlayerInfosByRace(race, expected);
+                    }
+                    if (profession != null) {
+                        expected = testsHelper.getPlayerInfosByProfession(profession, expected);
+                    }
+                    if (banned != null) {
+                        expected = testsHelper.getPlayerInfosByBaned(banned, expected);
+                    }
+                    PlayerRequest request = new PlayerRequest();
+                    request.setRace(race);
+                    request.setProfession(profession);
+                    request.setBanned(banned);
+                    assertEquals("Неправильное количество для race=" + race + ", profession=" + profession
+                            + ", banned=" + banned + ".", (long) expected.size(), index.count(request));
+                }
+            }
+        }
+    }
+
+    //test2
+    @Test
+    public void rangeFiltersAreNotAnsweredTest() {
+        PlayerRequest request = new PlayerRequest();
+        request.setRace(Race.ELF);
+        request.setMinLevel(10);
+
+        assertNull("Фильтры по диапазонам индекс не считает.",
+                context.getBean(PlayerBitmapIndex.class).count(request));
+    }
+
+    //test3
+    @Test
+    public void indexFollowsBanTest() throws Exception {
+        long total = count("race=DWARF");
+
+        mockMvc.perform(post("/rest/players/ban?race=DWARF")).andExpect(status().isOk());
+        assertEquals("После бана все гномы должны считаться забаненными.", total, count("race=DWARF&banned=true"));
+        assertEquals("После бана не должно остаться незабаненных гномов.", 0L, count("race=DWARF&banned=false"));
+
+        long id = testsHelper.getPlayerInfosByRace(Race.DWARF, testsHelper.getAllPlayers()).get(0).id;
+        mockMvc.perform(post("/rest/players/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\":false}"))
+                .andExpect(status().isOk());
+        assertEquals("После разбана игрока количество должно уменьшиться.", total - 1, count("race=DWARF&banned=true"));
+        assertEquals("Количество без фильтра banned не должно меняться.", total, count("race=DWARF"));
+    }
+
+    //test4
+    @Test
+    public void rowWithNullDisablesIndexUntilReloadTest() {
+        PlayerBitmapIndex index = context.getBean(PlayerBitmapIndex.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        PlayerRequest request = new PlayerRequest();
+        request.setRace(Race.ELF);
+
+        jdbcTemplate.update("UPDATE player SET race = NULL WHERE id = 1");
+        index.playersReloaded();
+        assertNull("Строка с NULL в race не помещается в индекс, подсчет должен уходить в базу.", index.count(request));
+
+        jdbcTemplate.update("UPDATE player SET race = 'ELF' WHERE id = 1");
+        index.playersReloaded();
+        assertEquals("После перезагрузки без NULL индекс снова отвечает.",
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player WHERE race = 'ELF'", Long.class),
+                index.count(request));
+    }
+
+    private long count(String query) throws Exception {
+        return Long.parseLong(mockMvc.perform(get("/rest/players/count?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    // массив, а не varargs: обобщенный varargs - источник heap pollution
+    private static <T> T[] withNull(T[] values) {
+        T[] result = Arrays.copyOf(values, values.length + 1);
+        System.arraycopy(result, 0, result, 1, values.length);
+        result[0] = null;
+        return result;
+    }
+}
@@ -0,0 +1,151 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.entity.Player;
+import com.game.model.PlayerRequest;
+import com.game.repository.PlayerRepository;
+import com.game.service.columnar.PlayerColumnStore;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"columnar.enabled=true", "cache.query.maxSize=0"})
+public class ColumnarStoreTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void filteredListByIdMatchesDatabaseTest() throws Exception {
+        //after 00:00 01.01.2003
+        //before 00:00 01.01.2006
+        List<PlayerInfoTest> actual = readList("/rest/players?race=HUMAN&profession=WARRIOR&after=1041372000000&before=1136066400000");
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByPage(0, 3,
+                testsHelper.getPlayerInfosByBefore(1136066400000L,
+                        testsHelper.getPlayerInfosByAfter(1041372000000L,
+                                testsHelper.getPlayerInfosByProfession(Profession.WARRIOR,
+                                        testsHelper.getPlayerInfosByRace(Race.HUMAN, testsHelper.getAllPlayers())))));
+
+        assertEquals("Колоночный индекс вернул не те строки.", expected, actual);
+    }
+
+    //test2
+    @Test
+    public void orderedPageMatchesDatabaseTest() throws Exception {
+        List<PlayerInfoTest> actual = readList("/rest/players?banned=false&minLevel=5&order=LEVEL&pageNumber=1&pageSize=4");
+        List<PlayerInfoTest> filtered = new ArrayList<>(testsHelper.getPlayerInfosByMinLevel(5,
+                testsHelper.getPlayerInfosByBaned(false, testsHelper.getAllPlayers())));
+        filtered.sort(Comparator.comparing((PlayerInfoTest player) -> player.level).thenComparing(player -> player.id));
+
+        assertEquals("Колоночный индекс вернул не ту страницу при сортировке по уровню.",
+                testsHelper.getPlayerInfosByPage(1, 4, filtered), actual);
+    }
+
+    //test3
+    @Test
+    public void countIsAnsweredByStoreTest() throws Exception {
+        PlayerColumnStore store = context.getBean(PlayerColumnStore.class);
+        PlayerRequest request = new PlayerRequest();
+        request.setRace(Race.ELF);
+        request.setMinExperience(1000);
+        long expected = testsHelper.getPlayerInfosByMinExperience(1000,
+                testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers())).size();
+
+        assertEquals("Колоночный индекс должен сам отвечать на подсчет.", expected, store.count(request));
+        assertEquals("Неправильное количество при запросе GET /rest/players/count.",
+                expected, count("race=ELF&minExperience=1000"));
+
+        request.setName("ра");
+        assertNull("Поиск по подстроке должен уходить в базу.", store.count(request));
+    }
+
+    //test4
+    @Test
+    public void storeFollowsCreateAndDeleteTest() throws Exception {
+        long before = count("race=ORC");
+        String content = mockMvc.perform(post("/rest/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Columnar\",\"title\":\"Test\",\"race\":\"ORC\",\"profession\":\"ROGUE\"," +
+                        "\"birthday\":988059600000,\"banned\":false,\"experience\":1500}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = mapper.readTree(content).get("id").asLong();
+        assertEquals("После создания игрока количество должно вырасти.", before + 1, count("race=ORC"));
+
+        List<PlayerInfoTest> last = readList("/rest/players?race=ORC&profession=ROGUE&pageSize=100");
+        assertNotNull("Созданный игрок должен попасть в выборку.", last.stream().filter(player -> player.id == id).findFirst().orElse(null));
+
+        mockMvc.perform(delete("/rest/players/" + id)).andExpect(status().isOk());
+        assertEquals("После удаления игрока количество должно вернуться.", before, count("race=ORC"));
+    }
+
+    //test5
+    @Test
+    public void staleEventIsIgnoredTest() throws Exception {
+        PlayerColumnStore store = context.getBean(PlayerColumnStore.class);
+        Player stale = context.getBean(PlayerRepository.class).findById(1L).orElseThrow(IllegalStateException::new);
+        Race other = stale.getRace() == Race.ORC ? Race.ELF : Race.ORC;
+        PlayerRequest request = new PlayerRequest();
+        request.setRace(stale.getRace());
+        long before = store.count(request);
+
+        mockMvc.perform(post("/rest/players/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\":\"" + other + "\"}"))
+                .andExpect(status().isOk());
+        // событие о прежней версии пришло позже события об изменении
+        store.playerSaved(stale);
+
+        assertEquals("Событие о старой версии игрока не должно применяться.", before - 1, store.count(request));
+    }
+
+    //test6
+    @Test
+    public void rowWithNullFallsBackToDatabaseTest() throws Exception {
+        PlayerColumnStore store = context.getBean(PlayerColumnStore.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE player SET level = NULL WHERE id = 1");
+        store.playersReloaded();
+
+        PlayerRequest request = new PlayerRequest();
+        request.setRace(Race.ELF);
+        assertNull("Строка с NULL не помещается в колонки, подсчет должен уходить в базу.", store.count(request));
+        assertEquals("Неправильное количество при запросе GET /rest/players/count.",
+                (long) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player WHERE race = 'ELF'", Long.class),
+                count("race=ELF"));
+    }
+
+    private List<PlayerInfoTest> readList(String url) throws Exception {
+        String contentAsString = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(contentAsString, typeReference);
+    }
+
+    private long count(String query) throws Exception {
+        return Long.parseLong(mockMvc.perform(get("/rest/players/count?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,84 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "batch.maxSize=5")
+public class CreatePlayersBatchTest extends AbstractTest {
+
+    private static final int MAX_SIZE = 5;
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void createPlayersReportsItemErrors() throws Exception {
+        String body = "[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.TOO_BIG_TITLE_LENGTH_JSON + ","
+                + TestsHelper.BANNED_TRUE_JSON + "," + TestsHelper.TOO_BIG_EXPERIENCE_JSON + "]";
+
+        String content = mockMvc.perform(post("/rest/players/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode result = mapper.readTree(content);
+
+        assertEquals("Должны быть созданы два валидных игрока.", 2, result.get("ids").size());
+        assertEquals("Должны быть возвращены ошибки по двум невалидным игрокам.", 2, result.get("errors").size());
+        assertEquals("Неправильный индекс ошибочного элемента.", 1, result.get("errors").get(0).get("index").asInt());
+        assertEquals("Неправильный индекс ошибочного элемента.", 3, result.get("errors").get(1).get("index").asInt());
+        assertEquals("Количество игроков должно увеличиться на число созданных.",
+                testsHelper.getAllPlayers().size() + 2, count());
+    }
+
+    //test2
+    @Test
+    public void createdPlayersHaveLevels() throws Exception {
+        String content = mockMvc.perform(post("/rest/players/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + TestsHelper.BANNED_TRUE_JSON + "]"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = mapper.readTree(content).get("ids").get(0).asLong();
+
+        String playerJson = mockMvc.perform(get("/rest/players/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        PlayerInfoTest actual = mapper.readValue(playerJson, PlayerInfoTest.class);
+
+        assertEquals("Неправильный уровень созданного игрока.", Integer.valueOf(35), actual.level);
+        assertEquals("Неправильный опыт до следующего уровня созданного игрока.", Integer.valueOf(2614), actual.untilNextLevel);
+    }
+
+    //test3
+    @Test
+    public void tooBigBatchIsRejected() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i <= MAX_SIZE; i++) {
+            body.append(i == 0 ? "" : ",").append(TestsHelper.NORMAL_JSON);
+        }
+        mockMvc.perform(post("/rest/players/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.append("]").toString()))
+                .andExpect(status().isBadRequest());
+
+        assertEquals("Из слишком большого пакета не должно создаваться ни одного игрока.",
+                testsHelper.getAllPlayers().size(), count());
+    }
+
+    private int count() throws Exception {
+        return Integer.parseInt(mockMvc.perform(get("/rest/players/count"))
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,74 @@
+package com.game.controller;
+
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import com.game.service.leaderboard.Leaderboard;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class DeletePlayersTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+
+    //test1
+    @Test
+    public void deletePlayersWithoutFiltersTest() throws Exception {
+        mockMvc.perform(delete("/rest/players"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test2
+    @Test
+    public void deletePlayersByFilterTest() throws Exception {
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+        List<PlayerInfoTest> filtered = testsHelper.getPlayerInfosByBaned(true,
+                testsHelper.getPlayerInfosByRace(Race.ELF, all));
+
+        String deleted = mockMvc.perform(delete("/rest/players?race=ELF&banned=true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Возвращается не правильное количество удаленных игроков.", String.valueOf(filtered.size()), deleted);
+
+        String count = mockMvc.perform(get("/rest/players/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("После массового удаления не должно остаться игроков по фильтру.",
+                String.valueOf(all.size() - filtered.size()), count);
+
+        mockMvc.perform(get("/rest/players/" + filtered.get(0).id))
+                .andExpect(status().isNotFound());
+    }
+
+    //test3
+    @Test
+    public void deletePlayersByNameTest() throws Exception {
+        List<PlayerInfoTest> filtered = testsHelper.getPlayerInfosByName("ан", testsHelper.getAllPlayers());
+
+        String deleted = mockMvc.perform(delete("/rest/players?name=ан"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Возвращается не правильное количество удаленных игроков.", String.valueOf(filtered.size()), deleted);
+    }
+
+    //test4
+    @Test
+    public void deletePlayersKeepsLeaderboardReadyTest() throws Exception {
+        List<PlayerInfoTest> filtered = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers());
+
+        mockMvc.perform(delete("/rest/players?race=ELF"))
+                .andExpect(status().isOk());
+
+        assertTrue("Удаление нескольких игроков не должно перестраивать рейтинг.",
+                context.getBean(Leaderboard.class).isReady());
+        mockMvc.perform(get("/rest/leaderboard/players/" + filtered.get(0).id))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,119 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.service.ExperienceIngestor;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"experience.maxPending=2", "experience.flushMs=3600000"})
+public class ExperienceIngestTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void eventsForOnePlayerAreCoalescedTest() throws Exception {
+        ExperienceIngestor ingestor = context.getBean(ExperienceIngestor.class);
+        PlayerInfoTest player = testsHelper.getPlayerInfosById(1);
+        StringBuilder events = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            events.append(i == 0 ? "" : ",").append("{\"id\":1,\"delta\":").append(i % 2 == 0 ? 30 : -10).append("}");
+        }
+        award(events.append("]").toString()).andExpect(status().isAccepted());
+
+        assertEquals("События одного игрока должны склеиться в одно изменение.", 1, ingestor.getPending());
+        assertEquals("Должна обновиться одна строка.", 1, ingestor.flush());
+
+        JsonNode updated = readPlayer(1);
+        int experience = player.experience + 1000;
+        int level = (int) ((Math.sqrt(2500 + 200 * experience) - 50) / 100);
+        assertEquals("Неправильный опыт после записи начислений.", experience, updated.get("experience").asInt());
+        assertEquals("Уровень должен пересчитаться.", level, updated.get("level").asInt());
+        assertEquals("Опыт до следующего уровня должен пересчитаться.",
+                50 * (level + 1) * (level + 2) - experience, updated.get("untilNextLevel").asInt());
+    }
+
+    //test2
+    @Test
+    public void fullQueueRejectsEventsTest() throws Exception {
+        ExperienceIngestor ingestor = context.getBean(ExperienceIngestor.class);
+        award("[{\"id\":1,\"delta\":5},{\"id\":2,\"delta\":5}]").andExpect(status().isAccepted());
+
+        award("[{\"id\":3,\"delta\":5}]").andExpect(status().isServiceUnavailable());
+        assertEquals("Отклоненные события не должны попасть в очередь.", 2, ingestor.getPending());
+
+        ingestor.flush();
+        award("[{\"id\":3,\"delta\":5}]").andExpect(status().isAccepted());
+        ingestor.flush();
+    }
+
+    //test3
+    @Test
+    public void experienceIsClampedAndUnknownPlayersAreDroppedTest() throws Exception {
+        ExperienceIngestor ingestor = context.getBean(ExperienceIngestor.class);
+        award("[{\"id\":2,\"delta\":-10000000},{\"id\":100000,\"delta\":5}]").andExpect(status().isAccepted());
+
+        assertEquals("Должна обновиться только существующая строка.", 1, ingestor.flush());
+        JsonNode updated = readPlayer(2);
+        assertEquals("Опыт не может стать отрицательным.", 0, updated.get("experience").asInt());
+        assertEquals("Уровень должен пересчитаться.", 0, updated.get("level").asInt());
+    }
+
+    //test4
+    @Test
+    public void invalidEventIsRejectedTest() throws Exception {
+        award("[{\"id\":1,\"delta\":5},{\"id\":0,\"delta\":5}]").andExpect(status().isBadRequest());
+        award("[{\"id\":1}]").andExpect(status().isBadRequest());
+        assertEquals("При ошибке в запросе не должно приниматься ни одно событие.", 0,
+                context.getBean(ExperienceIngestor.class).getPending());
+    }
+
+    //test5
+    @Test
+    public void acceptedEventsSurviveRestartTest() throws Exception {
+        ExperienceIngestor ingestor = context.getBean(ExperienceIngestor.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        PlayerInfoTest player = testsHelper.getPlayerInfosById(4);
+        award("[{\"id\":4,\"delta\":7},{\"id\":4,\"delta\":3}]").andExpect(status().isAccepted());
+        assertEquals("Принятые события должны быть сохранены до ответа.", 2, countEvents(jdbcTemplate));
+
+        // событие, принятое до перезапуска: в таблице есть, в очереди нет
+        jdbcTemplate.update("INSERT INTO experience_event(playerId, delta) VALUES (5, 20)");
+        assertEquals("Очередь должна восстановиться из таблицы.", 2, ingestor.recover());
+        assertEquals("Должны обновиться обе строки.", 2, ingestor.flush());
+
+        assertEquals("Записанные события должны удаляться.", 0, countEvents(jdbcTemplate));
+        assertEquals("Неправильный опыт после записи начислений.", player.experience + 10,
+                readPlayer(4).get("experience").asInt());
+        assertEquals("Неправильный опыт после восстановления очереди.",
+                testsHelper.getPlayerInfosById(5).experience + 20, readPlayer(5).get("experience").asInt());
+    }
+
+    private static int countEvents(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM experience_event", Integer.class);
+    }
+
+    private ResultActions award(String content) throws Exception {
+        return mockMvc.perform(post("/rest/players/experience")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(content));
+    }
+
+    private JsonNode readPlayer(long id) throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/players/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,57 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExportPlayersTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void exportWithoutFiltersReturnsAllPlayers() throws Exception {
+        assertEquals("Выгрузка без фильтров должна вернуть всех игроков в порядке id.",
+                testsHelper.getAllPlayers(), export("/rest/players/export"));
+    }
+
+    //test2
+    @Test
+    public void exportWithFiltersIgnoresPaging() throws Exception {
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByRace(Race.ELF,
+                testsHelper.getPlayerInfosByBaned(false, testsHelper.getAllPlayers()));
+
+        assertEquals("Выгрузка должна вернуть всех отфильтрованных игроков без разбивки на страницы.",
+                expected, export("/rest/players/export?race=ELF&banned=false&pageSize=1"));
+    }
+
+    private List<PlayerInfoTest> export(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        List<PlayerInfoTest> players = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (!line.isEmpty()) {
+                players.add(mapper.readValue(line, PlayerInfoTest.class));
+            }
+        }
+        return players;
+    }
+}
@@ -0,0 +1,72 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetAllByCursorTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void getAllByCursorWithoutFiltersReturnAllPlayers() throws Exception {
+        List<PlayerInfoTest> actual = readAllPages("order=ID&pageSize=7");
+
+        assertEquals("Обход по курсору должен вернуть всех игроков в порядке id.", testsHelper.getAllPlayers(), actual);
+    }
+
+    //test2
+    @Test
+    public void getAllByCursorWithFiltersOrderLevel() throws Exception {
+        List<PlayerInfoTest> actual = readAllPages("banned=false&maxLevel=40&order=LEVEL&pageSize=4");
+
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByBaned(false,
+                testsHelper.getPlayerInfosByMaxLevel(40, testsHelper.getAllPlayers()))
+                .stream()
+                .sorted(Comparator.comparing((PlayerInfoTest p) -> p.level).thenComparing(p -> p.id))
+                .collect(Collectors.toList());
+
+        assertEquals("Обход по курсору с фильтрами должен вернуть отфильтрованных игроков в порядке level, id.", expected, actual);
+    }
+
+    //test3
+    @Test
+    public void getAllByCursorForeignOrderTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/players?cursor=&order=LEVEL&pageSize=2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        String cursor = response.getHeader(RpgController.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/rest/players?order=NAME&cursor=" + cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<PlayerInfoTest> readAllPages(String query) throws Exception {
+        List<PlayerInfoTest> result = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MockHttpServletResponse response = mockMvc.perform(get("/rest/players?" + query + "&cursor=" + cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            result.addAll(mapper.readValue(response.getContentAsString(), typeReference));
+            cursor = response.getHeader(RpgController.NEXT_CURSOR_HEADER);
+        }
+        return result;
+    }
+}
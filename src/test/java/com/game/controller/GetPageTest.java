@@ -0,0 +1,67 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetPageTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void getPageWithFiltersReturnsPlayersAndCount() throws Exception {
+        JsonNode page = readPage("/rest/players/page?race=ELF&pageNumber=1&pageSize=2");
+
+        List<PlayerInfoTest> filtered = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers());
+        List<PlayerInfoTest> actual = mapper.readValue(page.get("players").traverse(), typeReference);
+
+        assertEquals("Возвращается не правильная страница при запросе GET /rest/players/page.",
+                testsHelper.getPlayerInfosByPage(1, 2, filtered), actual);
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/players/page.",
+                (long) filtered.size(), page.get("totalCount").asLong());
+        assertEquals("Неправильный признак следующей страницы.", filtered.size() > 4, page.get("hasNext").asBoolean());
+    }
+
+    //test2
+    @Test
+    public void getLastPageReturnsCount() throws Exception {
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+        int lastPage = (all.size() - 1) / 3;
+        JsonNode page = readPage("/rest/players/page?pageNumber=" + lastPage);
+
+        assertEquals("Возвращается не правильное количество для последней страницы.",
+                (long) all.size(), page.get("totalCount").asLong());
+        assertEquals("У последней страницы не должно быть следующей.", false, page.get("hasNext").asBoolean());
+    }
+
+    //test3
+    @Test
+    public void getPageWithoutCount() throws Exception {
+        JsonNode page = readPage("/rest/players/page?withCount=false");
+
+        assertTrue("При withCount=false количество не должно считаться.", page.get("totalCount").isNull());
+        assertEquals("Неправильный признак следующей страницы.", true, page.get("hasNext").asBoolean());
+    }
+
+    private JsonNode readPage(String url) throws Exception {
+        String contentAsString = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(contentAsString);
+    }
+}
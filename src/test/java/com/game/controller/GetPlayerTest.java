@@ -5,9 +5,11 @@ import com.game.controller.utils.PlayerInfoTest;
 import com.game.controller.utils.TestsHelper;
 import org.junit.Test;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.ResultActions;
 
 import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,4 +49,22 @@ public class GetPlayerTest extends AbstractTest {
         PlayerInfoTest actual = mapper.readValue(contentAsString, PlayerInfoTest.class);
         assertEquals("Вернулся неправильный объект при запросе GET /rest/players/{id}", expected, actual);
     }
-}
\ No newline at end of file
+
+    //test5
+    @Test
+    public void getPlayerWithNullColumnsTest() throws Exception {
+        context.getBean(JdbcTemplate.class)
+                .update("UPDATE player SET birthday = NULL, level = NULL, untilNextLevel = NULL WHERE id = 14");
+
+        ResultActions resultActions = mockMvc.perform(get("/rest/players/14"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?pageSize=100"))
+                .andExpect(status().isOk());
+
+        PlayerInfoTest actual = new ObjectMapper()
+                .readValue(resultActions.andReturn().getResponse().getContentAsString(), PlayerInfoTest.class);
+        assertNull("Пустая дата рождения должна вернуться как null.", actual.birthday);
+        assertNull("Пустой уровень должен вернуться как null.", actual.level);
+        assertNull("Пустой опыт до следующего уровня должен вернуться как null.", actual.untilNextLevel);
+    }
+}
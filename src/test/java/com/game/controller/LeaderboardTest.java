@@ -0,0 +1,103 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import com.game.service.leaderboard.Leaderboard;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class LeaderboardTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void topByRaceTest() throws Exception {
+        List<PlayerInfoTest> expected = ranked(testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()));
+        JsonNode top = read("/rest/leaderboard/top?race=ELF&limit=3");
+
+        assertEquals("Неправильное количество мест в рейтинге.", Math.min(3, expected.size()), top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals("Неправильное место.", i + 1, top.get(i).get("rank").asInt());
+            assertEquals("Неправильный игрок на месте " + (i + 1) + ".",
+                    expected.get(i).id.longValue(), top.get(i).get("player").get("id").asLong());
+        }
+    }
+
+    //test2
+    @Test
+    public void rankAndAroundTest() throws Exception {
+        List<PlayerInfoTest> expected = ranked(testsHelper.getAllPlayers());
+        int index = expected.size() / 2;
+        long id = expected.get(index).id;
+
+        JsonNode rank = read("/rest/leaderboard/players/" + id);
+        assertEquals("Неправильное место игрока в общем рейтинге.", index + 1, rank.get("rank").asInt());
+
+        JsonNode around = read("/rest/leaderboard/players/" + id + "/around?count=2");
+        assertEquals("Должны вернуться игрок и по два соседа.", 5, around.size());
+        assertEquals("Игрок должен быть в середине.", id, around.get(2).get("player").get("id").asLong());
+        assertEquals("Неправильный сосед выше.", expected.get(index - 1).id.longValue(), around.get(1).get("player").get("id").asLong());
+    }
+
+    //test3
+    @Test
+    public void rankFollowsExperienceUpdateTest() throws Exception {
+        List<PlayerInfoTest> expected = ranked(testsHelper.getAllPlayers());
+        long id = expected.get(expected.size() - 1).id;
+
+        mockMvc.perform(post("/rest/players/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"experience\":10000000}"))
+                .andExpect(status().isOk());
+
+        assertEquals("После роста опыта игрок должен стать первым.", 1,
+                read("/rest/leaderboard/players/" + id).get("rank").asInt());
+    }
+
+    //test4
+    @Test
+    public void invalidRequestsTest() throws Exception {
+        mockMvc.perform(get("/rest/leaderboard/players/100000")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/rest/leaderboard/top?limit=0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rest/leaderboard/top?race=ELF&profession=DRUID")).andExpect(status().isBadRequest());
+    }
+
+    //test5
+    @Test
+    public void playersWithNullAreSkippedTest() throws Exception {
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+        context.getBean(JdbcTemplate.class).update("UPDATE player SET race = NULL WHERE id = 1");
+        context.getBean(Leaderboard.class).playersReloaded();
+
+        assertEquals("Игрок без расы не должен попасть в рейтинг.", all.size() - 1,
+                read("/rest/leaderboard/top?limit=1000").size());
+        mockMvc.perform(get("/rest/leaderboard/players/1")).andExpect(status().isNotFound());
+    }
+
+    private List<PlayerInfoTest> ranked(List<PlayerInfoTest> players) {
+        List<PlayerInfoTest> result = new ArrayList<>(players);
+        result.sort(Comparator.comparing((PlayerInfoTest player) -> -player.experience).thenComparing(player -> player.id));
+        return result;
+    }
+
+    private JsonNode read(String url) throws Exception {
+        return mapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,98 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.repository.JobCheckpointRepository;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class LevelRecomputeTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void recomputeFixesStaleLevelsTest() throws Exception {
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+        jdbcTemplate().update("UPDATE player SET level = 0, untilNextLevel = 0");
+
+        JsonNode progress = recompute();
+
+        assertEquals("Пересчет должен завершиться.", "DONE", progress.get("status").asText());
+        assertEquals("Должны быть обработаны все строки.", (long) all.size(), progress.get("processed").asLong());
+        assertEquals("Должны быть обновлены все строки с неверным уровнем.", (long) all.size(), progress.get("updated").asLong());
+        for (PlayerInfoTest expected : all) {
+            assertEquals("После пересчета уровень игрока должен совпадать с рассчитанным.", expected, getPlayer(expected.id));
+        }
+        assertNull("После завершения точка продолжения удаляется.",
+                context.getBean(JobCheckpointRepository.class).find("level-recompute"));
+    }
+
+    //test2
+    @Test
+    public void recomputeResumesFromCheckpointTest() throws Exception {
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+        jdbcTemplate().update("UPDATE player SET level = 0, untilNextLevel = 0");
+        context.getBean(JobCheckpointRepository.class).save("level-recompute", 20, 20);
+
+        JsonNode progress = recompute();
+
+        assertEquals("Пересчет должен завершиться.", "DONE", progress.get("status").asText());
+        assertEquals("Обработанные до остановки строки учитываются в прогрессе.", (long) all.size(), progress.get("processed").asLong());
+        assertEquals("Пересчет должен продолжиться с точки продолжения.", (long) all.size() - 20, progress.get("updated").asLong());
+        assertEquals("Строки до точки продолжения не пересчитываются.", 0, getPlayer(20L).level);
+        assertEquals("Строки после точки продолжения пересчитываются.", testsHelper.getPlayerInfosById(21), getPlayer(21L));
+    }
+
+    //test3
+    @Test
+    public void recomputeSkipsRowsWithInvalidExperienceTest() throws Exception {
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+        jdbcTemplate().update("UPDATE player SET level = 0, untilNextLevel = 0");
+        jdbcTemplate().update("UPDATE player SET experience = NULL WHERE id = 1");
+        jdbcTemplate().update("UPDATE player SET experience = 20000000 WHERE id = 2");
+
+        JsonNode progress = recompute();
+
+        assertEquals("Строки с неправильным опытом не должны останавливать пересчет.", "DONE", progress.get("status").asText());
+        assertEquals("Строки с неправильным опытом должны считаться пропущенными.", 2L, progress.get("skipped").asLong());
+        assertEquals("Остальные строки должны быть обновлены.", (long) all.size() - 2, progress.get("updated").asLong());
+        assertEquals("Остальные строки должны быть пересчитаны.", testsHelper.getPlayerInfosById(3), getPlayer(3L));
+    }
+
+    private JsonNode recompute() throws Exception {
+        mockMvc.perform(post("/rest/admin/levels/recompute"))
+                .andExpect(status().isAccepted());
+        long deadline = System.currentTimeMillis() + 10000;
+        JsonNode progress;
+        do {
+            Thread.sleep(20);
+            progress = mapper.readTree(mockMvc.perform(get("/rest/admin/levels/recompute"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        } while ("RUNNING".equals(progress.get("status").asText()) && System.currentTimeMillis() < deadline);
+        return progress;
+    }
+
+    private PlayerInfoTest getPlayer(Long id) throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/players/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(contentAsString, PlayerInfoTest.class);
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        return context.getBean(JdbcTemplate.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.entity.Player;
+import com.game.repository.PlayerRepository;
+import com.game.service.cache.PlayerCache;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PlayerCacheTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void repeatedGetIsServedFromCache() throws Exception {
+        long hits = readJson("/rest/admin/cache").get("hits").asLong();
+
+        readJson("/rest/players/14");
+        readJson("/rest/players/14");
+
+        assertTrue("Повторный запрос игрока должен попадать в кэш.", readJson("/rest/admin/cache").get("hits").asLong() > hits);
+    }
+
+    //test2
+    @Test
+    public void updateIsVisibleThroughCache() throws Exception {
+        readJson("/rest/players/14");
+
+        mockMvc.perform(post("/rest/players/14")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Новый титул\", \"experience\": 100}"))
+                .andExpect(status().isOk());
+
+        JsonNode player = readJson("/rest/players/14");
+        assertEquals("После изменения из кэша должен возвращаться новый титул.", "Новый титул", player.get("title").asText());
+        assertEquals("После изменения из кэша должен возвращаться новый уровень.", 1, player.get("level").asInt());
+    }
+
+    //test3
+    @Test
+    public void staleEventDoesNotReplaceCachedPlayer() throws Exception {
+        Player stale = context.getBean(PlayerRepository.class).findById(14L).orElseThrow(IllegalStateException::new);
+
+        mockMvc.perform(post("/rest/players/14")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Новый титул\"}"))
+                .andExpect(status().isOk());
+        // событие о прежней версии пришло позже события об изменении
+        context.getBean(PlayerCache.class).playerSaved(stale);
+
+        assertEquals("Событие о старой версии игрока не должно попадать в кэш.", "Новый титул",
+                readJson("/rest/players/14").get("title").asText());
+    }
+
+    private JsonNode readJson(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+}
@@ -0,0 +1,106 @@
+package com.game.controller;
+
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.model.PlayerRequest;
+import com.game.service.bitmap.PlayerBitmapIndex;
+import com.game.service.counters.PlayerCounters;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "count.engine=counters")
+public class PlayerCountersTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+
+    //test1
+    @Test
+    public void countsByCellAndLevelRangeTest() {
+        PlayerCounters counters = context.getBean(PlayerCounters.class);
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+        for (Profession profession : Profession.values()) {
+            PlayerRequest request = new PlayerRequest();
+            request.setProfession(profession);
+            request.setBanned(false);
+            request.setMinLevel(5);
+            request.setMaxLevel(30);
+            long expected = testsHelper.getPlayerInfosByMaxLevel(30, testsHelper.getPlayerInfosByMinLevel(5,
+                    testsHelper.getPlayerInfosByBaned(false, testsHelper.getPlayerInfosByProfession(profession, all)))).size();
+
+            assertEquals("Неправильное количество для profession=" + profession + ".", expected, counters.count(request));
+        }
+        assertEquals("Без фильтров должны считаться все игроки.", (long) all.size(), counters.count(new PlayerRequest()));
+    }
+
+    //test2
+    @Test
+    public void experienceFilterIsNotAnsweredTest() {
+        PlayerRequest request = new PlayerRequest();
+        request.setRace(Race.HUMAN);
+        request.setMinExperience(1000);
+
+        assertNull("Фильтр по опыту счетчики не считают.", context.getBean(PlayerCounters.class).count(request));
+    }
+
+    //test3
+    @Test
+    public void countersFollowUpdateAndDeleteTest() throws Exception {
+        PlayerInfoTest player = testsHelper.getPlayerInfosByRace(Race.GIANT, testsHelper.getAllPlayers()).get(0);
+        long giants = count("race=GIANT");
+        long trolls = count("race=TROLL");
+        long topLevel = count("minLevel=400");
+
+        mockMvc.perform(post("/rest/players/" + player.id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\":\"TROLL\",\"experience\":9000000}"))
+                .andExpect(status().isOk());
+        assertEquals("Игрок должен уйти из ячейки старой расы.", giants - 1, count("race=GIANT"));
+        assertEquals("Игрок должен попасть в ячейку новой расы.", trolls + 1, count("race=TROLL"));
+        assertEquals("Игрок должен попасть в гистограмму нового уровня.", topLevel + 1, count("minLevel=400"));
+
+        mockMvc.perform(delete("/rest/players/" + player.id)).andExpect(status().isOk());
+        assertEquals("После удаления игрок не должен считаться.", trolls, count("race=TROLL"));
+        assertEquals("После удаления игрок не должен считаться в гистограмме.", topLevel, count("minLevel=400"));
+    }
+
+    //test4
+    @Test
+    public void rowWithNullFallsBackToDatabaseTest() throws Exception {
+        PlayerCounters counters = context.getBean(PlayerCounters.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE player SET level = NULL, banned = NULL WHERE id = 1");
+        counters.playersReloaded();
+
+        assertNull("Строка с NULL не помещается в счетчики, подсчет должен уходить в базу.",
+                counters.count(new PlayerRequest()));
+        assertEquals("Неправильное количество при запросе GET /rest/players/count.",
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player WHERE level >= 10", Long.class),
+                count("minLevel=10"));
+    }
+
+    //test5
+    @Test
+    public void bitmapIndexIsOffWhenCountersAreUsedTest() {
+        assertNull("Битовый индекс включается только вместо счетчиков.",
+                context.getBean(PlayerBitmapIndex.class).count(new PlayerRequest()));
+    }
+
+    private long count(String query) throws Exception {
+        return Long.parseLong(mockMvc.perform(get("/rest/players/count?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,55 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class QueryCacheTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void repeatedCountIsServedFromCache() throws Exception {
+        count("race=ORC&banned=false");
+        long hits = stats().get("hits").asLong();
+
+        count("race=ORC&banned=false&pageNumber=2");
+
+        assertTrue("Подсчет с теми же фильтрами на другой странице должен попадать в кэш.", stats().get("hits").asLong() > hits);
+    }
+
+    //test2
+    @Test
+    public void deleteInvalidatesCachedCount() throws Exception {
+        int expected = testsHelper.getAllPlayers().size();
+        assertEquals("Неправильное количество игроков до удаления.", expected, count("order=LEVEL"));
+
+        mockMvc.perform(delete("/rest/players/2"))
+                .andExpect(status().isOk());
+
+        assertEquals("После удаления количество не должно браться из устаревшего кэша.", expected - 1, count("order=LEVEL"));
+    }
+
+    private int count(String query) throws Exception {
+        String content = mockMvc.perform(get("/rest/players/count?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(content);
+    }
+
+    private JsonNode stats() throws Exception {
+        String content = mockMvc.perform(get("/rest/admin/query-cache"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+}
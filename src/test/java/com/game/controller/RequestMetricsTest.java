@@ -0,0 +1,54 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.metrics.RequestMetrics;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RequestMetricsTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void routeServiceAndExceptionMetricsTest() throws Exception {
+        context.getBean(RequestMetrics.class).reset();
+        mockMvc.perform(get("/rest/players/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/415")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/rest/players/0")).andExpect(status().isBadRequest());
+
+        JsonNode metrics = mapper.readTree(mockMvc.perform(get("/rest/admin/metrics"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        JsonNode route = metrics.path("routes").path("GET /rest/players/{id}");
+        assertEquals("Должны учитываться все запросы маршрута.", 3L, route.path("count").asLong());
+        assertEquals("Ответы 4xx должны учитываться как ошибки.", 2L, route.path("errors").asLong());
+        assertTrue("Перцентили должны быть упорядочены.",
+                route.path("p50Us").asLong() <= route.path("p99Us").asLong()
+                        && route.path("p99Us").asLong() <= route.path("p999Us").asLong());
+        assertEquals("Должны учитываться вызовы сервиса.", 3L, metrics.path("service").path("PlayerService.getPlayerById").path("count").asLong());
+        assertEquals("Должны учитываться запросы к базе.", 2L, metrics.path("db").path("PlayerRepository.findViewById").path("count").asLong());
+        assertEquals("Должны учитываться исключения по типам.", 1L, metrics.path("exceptions").path("NotFoundException").asLong());
+        assertEquals("Должны учитываться исключения по типам.", 1L, metrics.path("exceptions").path("BadRequestException").asLong());
+        assertTrue("Должно учитываться время сериализации.", metrics.path("serialization").path("PlayerView").path("count").asLong() >= 1);
+    }
+
+    //test2
+    @Test
+    public void metricsExportedToJmxTest() throws Exception {
+        Object snapshot = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName("com.game:type=RequestMetrics"), "Snapshot");
+
+        assertTrue("Метрики должны быть доступны через JMX.", snapshot instanceof Map);
+    }
+}
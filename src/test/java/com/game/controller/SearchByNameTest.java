@@ -0,0 +1,71 @@
+package com.game.controller;
+
+import com.game.controller.utils.TestsHelper;
+import com.game.metrics.SlowQueryLog;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "search.narrowByIndex=true")
+public class SearchByNameTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+
+    //test1
+    @Test
+    public void countByLongNamePart() throws Exception {
+        int expected = testsHelper.getPlayerInfosByName("лан", testsHelper.getAllPlayers()).size();
+
+        assertEquals("Возвращается не правильный результат при поиске по подстроке name.", expected, count("name=лан"));
+    }
+
+    //test2
+    @Test
+    public void searchSeesUpdatedName() throws Exception {
+        int before = count("name=Зюзя");
+
+        mockMvc.perform(post("/rest/players/3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Зюзя\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals("После изменения имени игрок должен находиться по новому имени.", before + 1, count("name=Зюзя"));
+        assertEquals("После изменения имени игрок должен находиться по подстроке нового имени.", before + 1, count("name=юзя"));
+    }
+
+    //test3
+    @Test
+    public void slowQueryLogShowsCandidateCount() throws Exception {
+        SlowQueryLog slowQueryLog = context.getBean(SlowQueryLog.class);
+        slowQueryLog.clear();
+        slowQueryLog.setThresholdMs(0);
+        try {
+            int expected = testsHelper.getPlayerInfosByName("лан", testsHelper.getAllPlayers()).size();
+            count("name=лан&race=ELF");
+
+            Map<String, Object> entry = slowQueryLog.getEntries().get(0);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> candidates = (Map<String, Object>) entry.get("candidateIds");
+            assertTrue("В журнале должно быть количество id-кандидатов из индекса.",
+                    (Integer) candidates.get("name") >= expected && expected > 0);
+        } finally {
+            slowQueryLog.setThresholdMs(200);
+            slowQueryLog.clear();
+        }
+    }
+
+    private int count(String query) throws Exception {
+        String content = mockMvc.perform(get("/rest/players/count?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(content);
+    }
+}
@@ -0,0 +1,110 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import com.game.metrics.SlowQueryLog;
+import com.game.model.PlayerRequest;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.util.AssertionErrors.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SlowQueryLogTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @After
+    public void restoreThreshold() throws Exception {
+        mockMvc.perform(post("/rest/admin/slow-queries/threshold?ms=200"));
+        mockMvc.perform(delete("/rest/admin/slow-queries"));
+    }
+
+    //test1
+    @Test
+    public void slowQueryIsLoggedWithFiltersAndSqlTest() throws Exception {
+        mockMvc.perform(delete("/rest/admin/slow-queries")).andExpect(status().isOk());
+        mockMvc.perform(post("/rest/admin/slow-queries/threshold?ms=0")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players?race=ELF&minLevel=10&pageSize=100")).andExpect(status().isOk());
+
+        JsonNode entries = mapper.readTree(mockMvc.perform(get("/rest/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("При нулевом пороге в журнал должна попасть выборка.", 1, entries.size());
+        JsonNode entry = entries.get(0);
+        assertEquals("Неправильное название выборки.", "list", entry.get("operation").asText());
+        assertEquals("В журнале должны быть поля фильтра.", "ELF", entry.get("filters").get("race").asText());
+        assertEquals("В журнале должны быть поля фильтра.", 10, entry.get("filters").get("minLevel").asInt());
+        assertEquals("Неправильное количество строк.",
+                testsHelper.getPlayerInfosByMinLevel(10, testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers())).size(),
+                entry.get("rows").asInt());
+        assertTrue("В журнале должен быть SQL запроса.", entry.get("sql").get(0).asText().toLowerCase().contains("where"));
+    }
+
+    //test2
+    @Test
+    public void fastQueryIsNotLoggedTest() throws Exception {
+        mockMvc.perform(delete("/rest/admin/slow-queries")).andExpect(status().isOk());
+        mockMvc.perform(post("/rest/admin/slow-queries/threshold?ms=60000")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players/count?race=ELF")).andExpect(status().isOk());
+
+        String contentAsString = mockMvc.perform(get("/rest/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Быстрые выборки не должны попадать в журнал.", "[]", contentAsString);
+    }
+
+    //test3
+    @Test
+    public void slowCountIsLoggedWithCountTest() throws Exception {
+        mockMvc.perform(delete("/rest/admin/slow-queries")).andExpect(status().isOk());
+        mockMvc.perform(post("/rest/admin/slow-queries/threshold?ms=0")).andExpect(status().isOk());
+
+        long count = Long.parseLong(mockMvc.perform(get("/rest/players/count?after=0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        JsonNode entries = mapper.readTree(mockMvc.perform(get("/rest/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("При нулевом пороге в журнал должен попасть подсчет.", 1, entries.size());
+        assertEquals("Неправильное название выборки.", "count", entries.get(0).get("operation").asText());
+        assertTrue("Для подсчета нужно записывать найденное количество.", count > 1);
+        assertEquals("Для подсчета нужно записывать найденное количество.", count, entries.get(0).get("rows").asLong());
+    }
+
+    //test4
+    @Test
+    public void failedQueryIsLoggedWithErrorTest() throws Exception {
+        SlowQueryLog slowQueryLog = context.getBean(SlowQueryLog.class);
+        mockMvc.perform(delete("/rest/admin/slow-queries")).andExpect(status().isOk());
+        mockMvc.perform(post("/rest/admin/slow-queries/threshold?ms=0")).andExpect(status().isOk());
+
+        try {
+            slowQueryLog.track("list", new PlayerRequest(), () -> {
+                throw new QueryTimeoutException("timeout");
+            }, (Long rows) -> rows);
+            fail("Исключение выборки должно пробрасываться дальше.");
+        } catch (QueryTimeoutException expected) {
+            // ожидаемо
+        }
+
+        JsonNode entries = mapper.readTree(mockMvc.perform(get("/rest/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Выборка с ошибкой тоже должна попасть в журнал.", 1, entries.size());
+        assertEquals("В журнале должен быть класс исключения.", QueryTimeoutException.class.getName(),
+                entries.get(0).get("error").asText());
+    }
+}
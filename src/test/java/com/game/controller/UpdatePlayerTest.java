@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import static org.springframework.test.util.AssertionErrors.assertEquals;
 import static org.springframework.test.util.AssertionErrors.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -181,4 +182,35 @@ public class UpdatePlayerTest extends AbstractTest {
 
         assertEquals("При запросе POST /rest/players/{id} корабль должен обновляться и рейтинг пересчитываться", expected, actual);
     }
-}
\ No newline at end of file
+
+    //test12
+    @Test
+    public void updatePlayerPartialTest() throws Exception {
+        PlayerInfoTest playerInfoTest = testsHelper.getPlayerInfosById(9);
+
+        PlayerInfoTest expected = new PlayerInfoTest(playerInfoTest.id, playerInfoTest.name, playerInfoTest.title, playerInfoTest.race,
+                playerInfoTest.profession, playerInfoTest.birthday, !playerInfoTest.banned, playerInfoTest.experience,
+                playerInfoTest.level, playerInfoTest.untilNextLevel);
+
+        mockMvc.perform(post("/rest/players/" + playerInfoTest.id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\":" + !playerInfoTest.banned + "}"))
+                .andExpect(status().isOk());
+
+        String contentAsString = mockMvc.perform(get("/rest/players/" + playerInfoTest.id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        PlayerInfoTest actual = mapper.readValue(contentAsString, PlayerInfoTest.class);
+
+        assertEquals("При частичном обновлении должно измениться только переданное поле", expected, actual);
+    }
+
+    //test13
+    @Test
+    public void updatePlayerEmptyBodyNotExistTest() throws Exception {
+        mockMvc.perform(post("/rest/players/415")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isNotFound());
+    }
+}
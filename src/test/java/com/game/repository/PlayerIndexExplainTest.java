@@ -0,0 +1,61 @@
+package com.game.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.util.StreamUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertTrue;
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+public class PlayerIndexExplainTest {
+
+    private static final String EXPECT = "-- expect: ";
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(H2)
+                .setScriptEncoding("UTF-8")
+                .addScript("test.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @After
+    public void shutdown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void queriesUseExpectedIndexes() throws Exception {
+        String script = StreamUtils.copyToString(
+                new ClassPathResource("db/explain/player_queries.sql").getInputStream(), StandardCharsets.UTF_8);
+        int checked = 0;
+        for (String block : script.split(";")) {
+            int expectAt = block.indexOf(EXPECT);
+            if (expectAt < 0) {
+                continue;
+            }
+            int lineEnd = block.indexOf('\n', expectAt);
+            String index = block.substring(expectAt + EXPECT.length(), lineEnd).trim();
+            String explain = block.substring(lineEnd + 1).trim();
+
+            String plan = jdbcTemplate.queryForObject(explain, String.class);
+            assertTrue("Запрос должен использовать индекс " + index + ":\n" + explain + "\nплан:\n" + plan,
+                    plan.toUpperCase().contains(index.toUpperCase()));
+            checked++;
+        }
+        assertTrue("Не найдено ни одного запроса для проверки", checked > 0);
+    }
+}
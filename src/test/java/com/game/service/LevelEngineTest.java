@@ -0,0 +1,33 @@
+package com.game.service;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LevelEngineTest {
+
+    @Test
+    public void levelMatchesFormulaOnWholeRange() {
+        for (int exp = 0; exp <= LevelEngine.MAX_EXPERIENCE; exp++) {
+            int expected = (int) ((Math.sqrt(2500 + 200 * exp) - 50) / 100);
+            int level = LevelEngine.level(exp);
+            if (level != expected) {
+                assertEquals("level for experience " + exp, expected, level);
+            }
+            int expectedUntilNext = 50 * (expected + 1) * (expected + 2) - exp;
+            if (LevelEngine.untilNextLevel(level, exp) != expectedUntilNext) {
+                assertEquals("untilNextLevel for experience " + exp, expectedUntilNext, LevelEngine.untilNextLevel(level, exp));
+            }
+        }
+    }
+
+    @Test
+    public void maxLevelIsLevelOfMaxExperience() {
+        assertEquals(LevelEngine.level(LevelEngine.MAX_EXPERIENCE), LevelEngine.maxLevel());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void levelRejectsExperienceOutOfRange() {
+        LevelEngine.level(LevelEngine.MAX_EXPERIENCE + 1);
+    }
+}
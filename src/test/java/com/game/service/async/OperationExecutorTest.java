@@ -0,0 +1,115 @@
+package com.game.service.async;
+
+import com.game.model.exception.ServiceUnavailableException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OperationExecutorTest {
+    private final OperationExecutor executor = new OperationExecutor("test", 1, 1, 1000);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void fullQueueRejectsImmediately() throws Exception {
+        executor.submit(this::block);
+        executor.submit(() -> 2);
+
+        CompletableFuture<Integer> rejected = executor.submit(() -> 3);
+
+        assertTrue(rejected.isDone());
+        try {
+            rejected.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ServiceUnavailableException);
+        }
+        assertEquals(1L, executor.stats().get("rejected"));
+    }
+
+    @Test
+    public void cancelledTaskIsNotRunFromQueue() throws Exception {
+        CompletableFuture<Integer> running = executor.submit(this::block);
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Integer> queued = executor.submit(() -> {
+            ran.set(true);
+            return 2;
+        });
+
+        queued.cancel(false);
+        release.countDown();
+        assertEquals(Integer.valueOf(1), running.get(1, TimeUnit.SECONDS));
+        awaitSkipped(executor);
+
+        assertFalse(ran.get());
+        assertEquals(1L, executor.stats().get("skipped"));
+    }
+
+    @Test
+    public void writeExpiresOnlyWhileQueued() throws Exception {
+        OperationExecutor fast = new OperationExecutor("fast", 1, 1, 100);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CompletableFuture<Integer> running = fast.submitBeforeTimeout(() -> {
+                started.countDown();
+                return block();
+            });
+            AtomicBoolean ran = new AtomicBoolean();
+            CompletableFuture<Integer> queued = fast.submitBeforeTimeout(() -> {
+                ran.set(true);
+                return 2;
+            });
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+
+            try {
+                queued.get(1, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ServiceUnavailableException);
+            }
+            assertFalse(running.isDone());
+
+            release.countDown();
+            assertEquals(Integer.valueOf(1), running.get(1, TimeUnit.SECONDS));
+            awaitSkipped(fast);
+            assertFalse(ran.get());
+            assertEquals(1L, fast.stats().get("expired"));
+        } finally {
+            fast.shutdown();
+        }
+    }
+
+    /**
+     * Поток освобождается чуть позже завершения задачи, поэтому отмененную задачу из очереди нужно дождаться
+     */
+    private static void awaitSkipped(OperationExecutor executor) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!Long.valueOf(1).equals(executor.stats().get("skipped")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private Integer block() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,40 @@
+package com.game.service.cache;
+
+import com.game.model.PlayerRequest;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class PlayerQueryCacheTest {
+
+    @Test
+    public void resultsAreNotCachedWhileReplicasMayLag() throws InterruptedException {
+        PlayerQueryCache cache = new PlayerQueryCache(100, 60, "jdbc:replica", 100);
+        AtomicInteger loads = new AtomicInteger();
+        PlayerRequest request = new PlayerRequest();
+
+        cache.playerDeleted(1);
+        cache.getCount(request, () -> (long) loads.incrementAndGet());
+        cache.getCount(request, () -> (long) loads.incrementAndGet());
+        assertEquals(2, loads.get());
+
+        Thread.sleep(150);
+        cache.getCount(request, () -> (long) loads.incrementAndGet());
+        cache.getCount(request, () -> (long) loads.incrementAndGet());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void resultsAreCachedRightAfterChangeWithoutReplicas() {
+        PlayerQueryCache cache = new PlayerQueryCache(100, 60, "", 100);
+        AtomicInteger loads = new AtomicInteger();
+        PlayerRequest request = new PlayerRequest();
+
+        cache.playerDeleted(1);
+        cache.getCount(request, () -> (long) loads.incrementAndGet());
+        cache.getCount(request, () -> (long) loads.incrementAndGet());
+        assertEquals(1, loads.get());
+    }
+}
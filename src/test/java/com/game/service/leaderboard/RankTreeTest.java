@@ -0,0 +1,54 @@
+package com.game.service.leaderboard;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RankTreeTest {
+
+    @Test
+    public void ordersByExperienceDescThenId() {
+        RankTree tree = new RankTree();
+        tree.insert(100, 3);
+        tree.insert(500, 7);
+        tree.insert(100, 1);
+        tree.insert(900, 2);
+
+        assertEquals(4, tree.size());
+        assertEquals(2L, tree.select(0));
+        assertEquals(7L, tree.select(1));
+        assertEquals(1L, tree.select(2));
+        assertEquals(3L, tree.select(3));
+        assertEquals(2, tree.rank(100, 1));
+        assertEquals(-1, tree.rank(100, 2));
+    }
+
+    @Test
+    public void matchesSortedListAfterRandomInsertsAndRemoves() {
+        Random random = new Random(42);
+        RankTree tree = new RankTree();
+        List<long[]> expected = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            int experience = random.nextInt(1000);
+            tree.insert(experience, id);
+            expected.add(new long[]{experience, id});
+        }
+        for (int i = 0; i < 2000; i++) {
+            long[] removed = expected.remove(random.nextInt(expected.size()));
+            tree.remove((int) removed[0], removed[1]);
+        }
+        expected.sort(Comparator.<long[]>comparingLong(key -> -key[0]).thenComparingLong(key -> key[1]));
+
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i++) {
+            long[] key = expected.get(i);
+            assertEquals(key[1], tree.select(i));
+            assertEquals(i, tree.rank((int) key[0], key[1]));
+        }
+    }
+}
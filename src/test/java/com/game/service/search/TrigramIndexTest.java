@@ -0,0 +1,67 @@
+package com.game.service.search;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TrigramIndexTest {
+
+    @Test
+    public void searchFindsSubstringIgnoringCase() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Эльфёнок Красное Ухо");
+        index.put(2, "Маленький эльфенок");
+        index.put(3, "Темный Идеолог");
+
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), index.search("ЭЛЬФ"));
+        assertEquals(Collections.singleton(3L), index.search("ный ид"));
+        assertEquals(Collections.emptySet(), index.search("орк"));
+    }
+
+    @Test
+    public void searchChecksWholeSubstringNotOnlyTrigrams() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "abcd bcde");
+
+        assertEquals(Collections.emptySet(), index.search("abcde"));
+        assertEquals(Collections.singleton(1L), index.search("bcde"));
+    }
+
+    @Test
+    public void putReplacesAndRemoveDeletes() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Архилл");
+        index.put(1, "Арилан");
+
+        assertEquals(Collections.emptySet(), index.search("хил"));
+        assertEquals(Collections.singleton(1L), index.search("рил"));
+
+        index.remove(1);
+        assertEquals(Collections.emptySet(), index.search("рил"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void searchIgnoresDiacriticsLikeGeneralCollation() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Эльфёнок Красное Ухо");
+        index.put(2, "Мойра");
+
+        assertEquals(Collections.singleton(1L), index.search("эльфенок"));
+        assertEquals(Collections.singleton(1L), index.search("ЭЛЬФЁН"));
+        assertEquals(Collections.singleton(2L), index.search("моир"));
+    }
+
+    @Test
+    public void shortQueryIsNotAnswered() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Арилан");
+
+        assertNull(index.search("ри"));
+    }
+}
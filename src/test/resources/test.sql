@@ -12,9 +12,40 @@ CREATE TABLE player
     experience     INT(10)     NULL,
     level          INT(3)      NULL,
     untilNextLevel INT(10)     NULL,
+    version        BIGINT(20)  NOT NULL DEFAULT 0,
     PRIMARY KEY (id)
 );
 
+CREATE INDEX player_race_profession_banned_idx ON player (race, profession, banned, level);
+CREATE INDEX player_profession_banned_idx ON player (profession, banned, level);
+CREATE INDEX player_banned_level_idx ON player (banned, level);
+CREATE INDEX player_level_idx ON player (level, experience);
+CREATE INDEX player_experience_idx ON player (experience);
+CREATE INDEX player_birthday_idx ON player (birthday);
+CREATE INDEX player_name_idx ON player (name);
+
+DROP TABLE IF EXISTS job_checkpoint;
+
+CREATE TABLE job_checkpoint
+(
+    name      VARCHAR(50) NOT NULL,
+    lastId    BIGINT(20)  NOT NULL,
+    processed BIGINT(20)  NOT NULL,
+    PRIMARY KEY (name)
+);
+
+DROP TABLE IF EXISTS experience_event;
+
+CREATE TABLE experience_event
+(
+    id       BIGINT(20) NOT NULL AUTO_INCREMENT,
+    playerId BIGINT(20) NOT NULL,
+    delta    BIGINT(20) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX experience_event_player_idx ON experience_event (playerId);
+
 INSERT INTO player(name, title, race, profession, birthday, banned, experience, level, untilNextLevel)
 VALUES ('Ниус', 'Приходящий Без Шума', 'HOBBIT', 'ROGUE', '2010-10-12', false, 58347, 33, 1153)
      , ('Никрашш', 'НайтВульф', 'ORC', 'WARLOCK', '2010-02-14', false, 174403, 58, 2597)